@@ -8,6 +8,7 @@
 package com.synopsys.integration.blackduck.bdio2;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import org.jetbrains.annotations.Nullable;
@@ -24,6 +25,7 @@ import com.synopsys.integration.blackduck.version.BlackDuckVersion;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.util.NameVersion;
+import com.synopsys.integration.util.NoThreadExecutorService;
 import com.synopsys.integration.wait.ResilientJobConfig;
 import com.synopsys.integration.wait.ResilientJobExecutor;
 import com.synopsys.integration.wait.tracker.WaitIntervalTracker;
@@ -35,6 +37,8 @@ public class Bdio2FileUploadService extends DataService {
 
     private final Bdio2ContentExtractor bdio2Extractor;
     private final Bdio2RetryAwareStreamUploader bdio2RetryAwareStreamUploader;
+    private final int appendConcurrency;
+    private final ExecutorService executorService;
 
     public Bdio2FileUploadService(
         BlackDuckApiClient blackDuckApiClient,
@@ -42,10 +46,28 @@ public class Bdio2FileUploadService extends DataService {
         IntLogger logger,
         Bdio2ContentExtractor bdio2Extractor,
         Bdio2RetryAwareStreamUploader bdio2RetryAwareStreamUploader
+    ) {
+        this(blackDuckApiClient, apiDiscovery, logger, bdio2Extractor, bdio2RetryAwareStreamUploader, Bdio2UploadJob.SERIAL_APPENDS, new NoThreadExecutorService());
+    }
+
+    /**
+     * @param appendConcurrency the maximum number of BDIO entries appended at the same time for each upload.
+     * @param executorService   runs the appends when appendConcurrency is greater than one.
+     */
+    public Bdio2FileUploadService(
+        BlackDuckApiClient blackDuckApiClient,
+        ApiDiscovery apiDiscovery,
+        IntLogger logger,
+        Bdio2ContentExtractor bdio2Extractor,
+        Bdio2RetryAwareStreamUploader bdio2RetryAwareStreamUploader,
+        int appendConcurrency,
+        ExecutorService executorService
     ) {
         super(blackDuckApiClient, apiDiscovery, logger);
         this.bdio2Extractor = bdio2Extractor;
         this.bdio2RetryAwareStreamUploader = bdio2RetryAwareStreamUploader;
+        this.appendConcurrency = appendConcurrency;
+        this.executorService = executorService;
     }
 
     public Bdio2UploadResult uploadFile(UploadTarget uploadTarget, long timeout) throws IntegrationException, InterruptedException {
@@ -55,7 +77,7 @@ public class Bdio2FileUploadService extends DataService {
     public Bdio2UploadResult uploadFile(UploadTarget uploadTarget, long timeout, boolean shouldUploadEntries, boolean shouldFinishUpload)
         throws IntegrationException, InterruptedException {
         logger.debug(String.format("Uploading BDIO file %s", uploadTarget.getUploadFile()));
-        List<BdioFileContent> bdioFileContentList = bdio2Extractor.extractContent(uploadTarget.getUploadFile());
+        List<BdioFileContent> bdioFileContentList = bdio2Extractor.extractStreamingContent(uploadTarget.getUploadFile());
         return uploadFiles(bdioFileContentList, uploadTarget.getProjectAndVersion().orElse(null), timeout, shouldUploadEntries, shouldFinishUpload);
     }
 
@@ -85,7 +107,9 @@ public class Bdio2FileUploadService extends DataService {
 
         WaitIntervalTracker waitIntervalTracker = WaitIntervalTrackerFactory.createConstant(timeout, BD_WAIT_AND_RETRY_INTERVAL);
         ResilientJobConfig jobConfig = new ResilientJobConfig(logger, System.currentTimeMillis(), waitIntervalTracker);
-        Bdio2UploadJob bdio2UploadJob = new Bdio2UploadJob(bdio2RetryAwareStreamUploader, header, remainingFiles, editor, count, shouldUploadEntries, shouldFinishUpload);
+        Bdio2UploadJob bdio2UploadJob = new Bdio2UploadJob(bdio2RetryAwareStreamUploader, header, remainingFiles, editor, count, shouldUploadEntries, shouldFinishUpload,
+            appendConcurrency, executorService
+        );
         ResilientJobExecutor jobExecutor = new ResilientJobExecutor(jobConfig);
 
         return jobExecutor.executeJob(bdio2UploadJob);
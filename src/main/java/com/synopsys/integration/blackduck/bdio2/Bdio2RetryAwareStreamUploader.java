@@ -67,7 +67,7 @@ public class Bdio2RetryAwareStreamUploader {
         if (!response.isStatusCodeSuccess()) {
             if (isRetryableExitCode(response.getStatusCode())) {
                 logger.trace("Response status code {} is retryable", response.getStatusCode());
-                throw new RetriableBdioUploadException();
+                throw new RetriableBdioUploadException(response.getStatusCode());
             }
             logger.trace("Response status code {} is not retryable", response.getStatusCode());
             throw new IntegrationException(String.format("Bdio upload failed with non-retryable exit code: %d", response.getStatusCode()));
@@ -78,7 +78,7 @@ public class Bdio2RetryAwareStreamUploader {
     private Response translateRetryableExceptions(final IntegrationRestException e) throws RetriableBdioUploadException, IntegrationRestException {
         if (isRetryableExitCode(e.getHttpStatusCode())) {
             logger.trace("Response status code {} in caught exception is retryable", e.getHttpStatusCode());
-            throw new RetriableBdioUploadException();
+            throw new RetriableBdioUploadException(e.getHttpStatusCode());
         }
         throw e;
     }
@@ -20,12 +20,14 @@ import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
 import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
 import com.synopsys.integration.blackduck.bdio2.model.BdioFileContent;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.RequestCompression;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequestBuilderEditor;
 import com.synopsys.integration.blackduck.service.request.BlackDuckResponseRequest;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.body.BodyContent;
 import com.synopsys.integration.rest.response.Response;
 
 public class Bdio2StreamUploader {
@@ -42,19 +44,32 @@ public class Bdio2StreamUploader {
     private final IntLogger logger;
     private final BlackDuckPath<BlackDuckResponse> scanPath;
     private final String contentType;
+    private final RequestCompression requestCompression;
 
     public Bdio2StreamUploader(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, BlackDuckPath<BlackDuckResponse> scanPath, String contentType) {
+        this(blackDuckApiClient, apiDiscovery, logger, scanPath, contentType, RequestCompression.NONE);
+    }
+
+    public Bdio2StreamUploader(
+        BlackDuckApiClient blackDuckApiClient,
+        ApiDiscovery apiDiscovery,
+        IntLogger logger,
+        BlackDuckPath<BlackDuckResponse> scanPath,
+        String contentType,
+        RequestCompression requestCompression
+    ) {
         this.blackDuckApiClient = blackDuckApiClient;
         this.apiDiscovery = apiDiscovery;
         this.logger = logger;
         this.scanPath = scanPath;
         this.contentType = contentType;
+        this.requestCompression = requestCompression;
     }
 
     public Response start(BdioFileContent header, BlackDuckRequestBuilderEditor editor) throws IntegrationException {
         HttpUrl url = apiDiscovery.metaSingleResponse(scanPath).getUrl();
         BlackDuckResponseRequest request = new BlackDuckRequestBuilder()
-            .postString(header.getContent(), ContentType.create(contentType, StandardCharsets.UTF_8))
+            .postBodyContent(createBodyContent(header))
             .addHeader(HEADER_CONTENT_TYPE, contentType)
             .apply(editor)
             .buildBlackDuckResponseRequest(url);
@@ -64,7 +79,7 @@ public class Bdio2StreamUploader {
     public Response append(HttpUrl url, int count, BdioFileContent bdioFileContent, BlackDuckRequestBuilderEditor editor) throws IntegrationException {
         logger.debug(String.format("Appending file %s, to %s with count %d", bdioFileContent.getFileName(), url.toString(), count));
         BlackDuckResponseRequest request = new BlackDuckRequestBuilder()
-            .putString(bdioFileContent.getContent(), ContentType.create(contentType, StandardCharsets.UTF_8))
+            .putBodyContent(createBodyContent(bdioFileContent))
             .addHeader(HEADER_CONTENT_TYPE, contentType)
             .addHeader(HEADER_X_BD_MODE, "append")
             .addHeader(HEADER_X_BD_DOCUMENT_COUNT, String.valueOf(count))
@@ -84,4 +99,9 @@ public class Bdio2StreamUploader {
             .buildBlackDuckResponseRequest(url);
         return blackDuckApiClient.execute(request);
     }
+
+    private BodyContent createBodyContent(BdioFileContent bdioFileContent) {
+        return requestCompression.apply(new BdioFileContentBodyContent(bdioFileContent, ContentType.create(contentType, StandardCharsets.UTF_8)));
+    }
+
 }
@@ -7,22 +7,36 @@
  */
 package com.synopsys.integration.blackduck.bdio2;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.synopsys.integration.blackduck.bdio2.model.BdioFileContent;
+import com.synopsys.integration.blackduck.service.ConcurrencyLimitedExecutorService;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequestBuilderEditor;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.exception.IntegrationTimeoutException;
 import com.synopsys.integration.rest.HttpUrl;
 import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.util.NoThreadExecutorService;
 import com.synopsys.integration.wait.ResilientJob;
 
 public class Bdio2UploadJob implements ResilientJob<Bdio2UploadResult> {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private static final String UPLOAD_JOB_NAME = "bdio upload";
+    public static final int SERIAL_APPENDS = 1;
+    public static final int MAX_FAILED_ATTEMPTS_PER_UPLOAD = 3;
+    // the upload the url points at no longer exists or can no longer be continued
+    private static final List<Integer> UPLOAD_GONE_STATUS_CODES = Arrays.asList(409, 410);
 
     private final Bdio2RetryAwareStreamUploader bdio2RetryAwareStreamUploader;
     private final BdioFileContent header;
@@ -31,9 +45,13 @@ public class Bdio2UploadJob implements ResilientJob<Bdio2UploadResult> {
     private final int count;
     private final boolean shouldUploadEntries;
     private final boolean shouldFinishUpload;
+    private final int appendConcurrency;
+    private final ExecutorService executorService;
 
+    private final Set<String> acknowledgedEntries = ConcurrentHashMap.newKeySet();
     private HttpUrl uploadUrl;
     private String scanId;
+    private int failedAttemptsOnUploadUrl;
     private boolean complete;
 
     public Bdio2UploadJob(
@@ -44,6 +62,24 @@ public class Bdio2UploadJob implements ResilientJob<Bdio2UploadResult> {
         int count,
         boolean onlyUploadHeader,
         boolean shouldFinishUpload
+    ) {
+        this(bdio2RetryAwareStreamUploader, header, bdioEntries, editor, count, onlyUploadHeader, shouldFinishUpload, SERIAL_APPENDS, new NoThreadExecutorService());
+    }
+
+    /**
+     * With an appendConcurrency greater than one, up to that many entries are appended at the same time on the executorService. Every append still carries
+     * the total document count, and finish is only sent once every append has been acknowledged.
+     */
+    public Bdio2UploadJob(
+        Bdio2RetryAwareStreamUploader bdio2RetryAwareStreamUploader,
+        BdioFileContent header,
+        List<BdioFileContent> bdioEntries,
+        BlackDuckRequestBuilderEditor editor,
+        int count,
+        boolean onlyUploadHeader,
+        boolean shouldFinishUpload,
+        int appendConcurrency,
+        ExecutorService executorService
     ) {
         this.bdio2RetryAwareStreamUploader = bdio2RetryAwareStreamUploader;
         this.header = header;
@@ -52,29 +88,142 @@ public class Bdio2UploadJob implements ResilientJob<Bdio2UploadResult> {
         this.count = count;
         this.shouldUploadEntries = onlyUploadHeader;
         this.shouldFinishUpload = shouldFinishUpload;
+        this.appendConcurrency = Math.max(SERIAL_APPENDS, appendConcurrency);
+        this.executorService = executorService;
     }
 
+    /**
+     * A retry continues the upload it already started: the header is only sent once, entries that were acknowledged are not sent again, and only the missing
+     * entries are appended to the same upload url before finishing. If Black Duck no longer accepts the upload (409 or 410), or attempts on the same upload
+     * url have failed MAX_FAILED_ATTEMPTS_PER_UPLOAD times, the next retry starts a new upload from the header.
+     */
     @Override
     public void attemptJob() throws IntegrationException {
         try {
-            Response headerResponse = bdio2RetryAwareStreamUploader.start(header, editor);
-            bdio2RetryAwareStreamUploader.onErrorThrowRetryableOrFailure(headerResponse);
-            complete = true;
-            uploadUrl = new HttpUrl(headerResponse.getHeaderValue("location"));
-            scanId = parseScanIdFromUploadUrl(uploadUrl.string());
+            if (null == uploadUrl) {
+                try (Response headerResponse = bdio2RetryAwareStreamUploader.start(header, editor)) {
+                    bdio2RetryAwareStreamUploader.onErrorThrowRetryableOrFailure(headerResponse);
+                    uploadUrl = new HttpUrl(headerResponse.getHeaderValue("location"));
+                    scanId = parseScanIdFromUploadUrl(uploadUrl.string());
+                } catch (IOException e) {
+                    throw new IntegrationException(e.getMessage(), e);
+                }
+            }
             if (shouldUploadEntries) {
-                logger.debug(String.format("Starting upload to %s", uploadUrl.string()));
-                for (BdioFileContent content : bdioEntries) {
-                    Response chunkResponse = bdio2RetryAwareStreamUploader.append(uploadUrl, count, content, editor);
-                    bdio2RetryAwareStreamUploader.onErrorThrowRetryableOrFailure(chunkResponse);
+                List<BdioFileContent> missingEntries = findMissingEntries();
+                if (missingEntries.size() < bdioEntries.size()) {
+                    logger.debug(String.format("Resuming upload to %s, %d of %d entries still to append", uploadUrl.string(), missingEntries.size(), bdioEntries.size()));
+                } else {
+                    logger.debug(String.format("Starting upload to %s", uploadUrl.string()));
+                }
+                if (appendConcurrency > SERIAL_APPENDS && missingEntries.size() > 1) {
+                    appendConcurrently(uploadUrl, missingEntries);
+                } else {
+                    for (BdioFileContent content : missingEntries) {
+                        append(uploadUrl, content);
+                    }
                 }
             }
             if (shouldFinishUpload) {
-                Response finishResponse = bdio2RetryAwareStreamUploader.finish(uploadUrl, count, editor);
-                bdio2RetryAwareStreamUploader.onErrorThrowRetryableOrFailure(finishResponse);
+                try (Response finishResponse = bdio2RetryAwareStreamUploader.finish(uploadUrl, count, editor)) {
+                    bdio2RetryAwareStreamUploader.onErrorThrowRetryableOrFailure(finishResponse);
+                } catch (IOException e) {
+                    throw new IntegrationException(e.getMessage(), e);
+                }
             }
+            complete = true;
         } catch (RetriableBdioUploadException e) {
             complete = false;
+            if (null != uploadUrl) {
+                failedAttemptsOnUploadUrl++;
+                boolean uploadGone = e.getStatusCode().filter(UPLOAD_GONE_STATUS_CODES::contains).isPresent();
+                if (uploadGone || failedAttemptsOnUploadUrl >= MAX_FAILED_ATTEMPTS_PER_UPLOAD) {
+                    logger.debug(String.format("The upload to %s can't be resumed, a new upload will be started", uploadUrl.string()));
+                    restartUpload();
+                }
+            }
+        }
+    }
+
+    private void restartUpload() {
+        uploadUrl = null;
+        scanId = null;
+        acknowledgedEntries.clear();
+        failedAttemptsOnUploadUrl = 0;
+    }
+
+    private List<BdioFileContent> findMissingEntries() {
+        List<BdioFileContent> missingEntries = new ArrayList<>();
+        for (BdioFileContent content : bdioEntries) {
+            if (!acknowledgedEntries.contains(content.getFileName())) {
+                missingEntries.add(content);
+            }
+        }
+        return missingEntries;
+    }
+
+    private void append(HttpUrl url, BdioFileContent content) throws IntegrationException, RetriableBdioUploadException {
+        try (Response chunkResponse = bdio2RetryAwareStreamUploader.append(url, count, content, editor)) {
+            bdio2RetryAwareStreamUploader.onErrorThrowRetryableOrFailure(chunkResponse);
+        } catch (IOException e) {
+            throw new IntegrationException(e.getMessage(), e);
+        }
+        acknowledgedEntries.add(content.getFileName());
+    }
+
+    private void appendConcurrently(HttpUrl url, List<BdioFileContent> entries) throws IntegrationException, RetriableBdioUploadException {
+        int threadCount = Math.min(appendConcurrency, entries.size());
+        logger.debug(String.format("Appending %d entries with up to %d at a time", entries.size(), threadCount));
+        ExecutorService appendExecutorService = createAppendExecutorService(threadCount);
+        try {
+            List<Future<Void>> appends = new ArrayList<>(entries.size());
+            for (BdioFileContent content : entries) {
+                Future<Void> future = appendExecutorService.submit(() -> {
+                    append(url, content);
+                    return null;
+                });
+                appends.add(future);
+            }
+            // every append has to be acknowledged before the caller may send finish, and after a retriable failure the remaining appends are still
+            // allowed to complete so that the retry has as little as possible left to send
+            RetriableBdioUploadException retriableFailure = null;
+            for (Future<Void> append : appends) {
+                try {
+                    waitForAppend(append);
+                } catch (RetriableBdioUploadException e) {
+                    retriableFailure = e;
+                }
+            }
+            if (null != retriableFailure) {
+                throw retriableFailure;
+            }
+        } finally {
+            appendExecutorService.shutdownNow();
+        }
+    }
+
+    // a view with its own limit, so the appends share the executor's threads instead of starting new ones on every attempt
+    private ExecutorService createAppendExecutorService(int threadCount) {
+        if (executorService instanceof ConcurrencyLimitedExecutorService) {
+            return ((ConcurrencyLimitedExecutorService) executorService).withLimit(threadCount);
+        }
+        return new ConcurrencyLimitedExecutorService(executorService, threadCount);
+    }
+
+    private void waitForAppend(Future<Void> append) throws IntegrationException, RetriableBdioUploadException {
+        try {
+            append.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while appending BDIO entries.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RetriableBdioUploadException) {
+                throw (RetriableBdioUploadException) cause;
+            } else if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            }
+            throw new IntegrationException(String.format("Appending a BDIO entry failed: %s", cause.getMessage()), cause);
         }
     }
 
@@ -0,0 +1,93 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.bdio2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import com.synopsys.integration.blackduck.bdio2.model.BdioFileContent;
+import com.synopsys.integration.rest.body.BodyContent;
+import com.synopsys.integration.rest.body.BodyContentConverter;
+
+/**
+ * Sends a {@link BdioFileContent} as the request body by copying its stream directly to the connection. The entity is repeatable: every attempt opens a new
+ * stream, so a retried request sends the full content again.
+ */
+public class BdioFileContentBodyContent implements BodyContent {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final BdioFileContent bdioFileContent;
+    private final ContentType contentType;
+
+    public BdioFileContentBodyContent(BdioFileContent bdioFileContent, ContentType contentType) {
+        this.bdioFileContent = bdioFileContent;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public HttpEntity createEntity(BodyContentConverter bodyContentConverter) {
+        return new BdioFileContentEntity(bdioFileContent, contentType);
+    }
+
+    public BdioFileContent getBdioFileContent() {
+        return bdioFileContent;
+    }
+
+    public ContentType getContentType() {
+        return contentType;
+    }
+
+    private static class BdioFileContentEntity extends AbstractHttpEntity {
+        private final BdioFileContent bdioFileContent;
+
+        public BdioFileContentEntity(BdioFileContent bdioFileContent, ContentType contentType) {
+            this.bdioFileContent = bdioFileContent;
+            if (null != contentType) {
+                setContentType(contentType.toString());
+            }
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return bdioFileContent.getContentLength();
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return bdioFileContent.openContentStream();
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (InputStream inputStream = bdioFileContent.openContentStream()) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int length;
+                while ((length = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, length);
+                }
+                outputStream.flush();
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
+}
@@ -7,5 +7,24 @@
  */
 package com.synopsys.integration.blackduck.bdio2;
 
+import java.util.Optional;
+
 public class RetriableBdioUploadException extends Exception {
+    private final Integer statusCode;
+
+    public RetriableBdioUploadException() {
+        this.statusCode = null;
+    }
+
+    public RetriableBdioUploadException(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return the status code Black Duck responded with, if the failure was a response.
+     */
+    public Optional<Integer> getStatusCode() {
+        return Optional.ofNullable(statusCode);
+    }
+
 }
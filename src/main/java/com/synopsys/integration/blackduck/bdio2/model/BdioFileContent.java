@@ -7,6 +7,11 @@
  */
 package com.synopsys.integration.blackduck.bdio2.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
 import com.synopsys.integration.util.Stringable;
 
 public class BdioFileContent extends Stringable {
@@ -25,4 +30,18 @@ public class BdioFileContent extends Stringable {
     public String getContent() {
         return content;
     }
+
+    /**
+     * Opens a new stream over the content. Every call returns a fresh stream so the content can be sent again when a request is retried.
+     */
+    public InputStream openContentStream() throws IOException {
+        return new ByteArrayInputStream(getContent().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the length of the content in bytes, or -1 when it is not known.
+     */
+    public long getContentLength() {
+        return getContent().getBytes(StandardCharsets.UTF_8).length;
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.bdio2.model;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * BDIO content that stays inside its zip file until it is read. Nothing is held in memory, each call to {@link #openContentStream()} reads the entry straight from
+ * the archive.
+ */
+public class ZipEntryBdioFileContent extends BdioFileContent {
+    private final File zipFile;
+    private final long size;
+
+    public ZipEntryBdioFileContent(File zipFile, String entryName, long size) {
+        super(entryName, null);
+        this.zipFile = zipFile;
+        this.size = size;
+    }
+
+    public File getZipFile() {
+        return zipFile;
+    }
+
+    /**
+     * Reads the whole entry into a String. Prefer {@link #openContentStream()} for anything that may be large.
+     */
+    @Override
+    public String getContent() {
+        try (InputStream inputStream = openContentStream()) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Error reading entry %s from %s", getFileName(), zipFile.getAbsolutePath()), e);
+        }
+    }
+
+    @Override
+    public InputStream openContentStream() throws IOException {
+        ZipFile archive = new ZipFile(zipFile);
+        try {
+            ZipEntry entry = archive.getEntry(getFileName());
+            if (null == entry) {
+                throw new IOException(String.format("Entry %s no longer exists in %s", getFileName(), zipFile.getAbsolutePath()));
+            }
+            return new FilterInputStream(archive.getInputStream(entry)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        archive.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            archive.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long getContentLength() {
+        return size;
+    }
+
+}
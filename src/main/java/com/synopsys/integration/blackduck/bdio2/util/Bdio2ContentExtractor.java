@@ -22,6 +22,7 @@ import java.util.zip.ZipFile;
 import org.apache.commons.io.FilenameUtils;
 
 import com.synopsys.integration.blackduck.bdio2.model.BdioFileContent;
+import com.synopsys.integration.blackduck.bdio2.model.ZipEntryBdioFileContent;
 import com.synopsys.integration.exception.IntegrationException;
 
 public class Bdio2ContentExtractor {
@@ -44,6 +45,28 @@ public class Bdio2ContentExtractor {
         return bdioFileContentList;
     }
 
+    /**
+     * Lists the jsonld entries of the BDIO file without reading them. The content of each entry is only read, straight from the zip file, when it is uploaded, so
+     * memory use does not grow with the size of the BDIO file.
+     */
+    public List<BdioFileContent> extractStreamingContent(File bdio2File) throws IntegrationException {
+        validateBdioFile(bdio2File);
+        List<BdioFileContent> bdioFileContentList = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(bdio2File)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String fileExtension = FilenameUtils.getExtension(entry.getName());
+                if ("jsonld".equals(fileExtension)) {
+                    bdioFileContentList.add(new ZipEntryBdioFileContent(bdio2File, entry.getName(), entry.getSize()));
+                }
+            }
+        } catch (IOException ex) {
+            throw new IntegrationException(String.format("Exception unzipping BDIO file. Path: %s", bdio2File.getAbsolutePath()), ex);
+        }
+        return bdioFileContentList;
+    }
+
     private void validateBdioFile(File bdio2File) throws IllegalArgumentException {
         String absolutePath = bdio2File.getAbsolutePath();
         if (!bdio2File.isFile()) {
@@ -7,11 +7,15 @@
  */
 package com.synopsys.integration.blackduck.bdio2.util;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -50,6 +54,56 @@ public class Bdio2Factory {
         return new Bdio2Document(bdioMetadata, project, subprojectsAndComponents.getLeft(), subprojectsAndComponents.getRight());
     }
 
+    /**
+     * Walks the graph and hands each BDIO node to the nodeConsumer as soon as it is complete, in the order Bdio2Writer writes a Bdio2Document: subprojects, then
+     * components, then the root project. The nodes are not collected, and the only index kept is of the ExternalIds already written (instances the graph
+     * already holds), so memory does not grow with the size of the document.
+     */
+    public void createBdio2Nodes(ProjectDependencyGraph dependencyGraph, NodeConsumer nodeConsumer) throws IOException {
+        Project project = createProject(dependencyGraph.getProjectDependency().getExternalId(), true);
+        Set<Dependency> directDependencies = dependencyGraph.getDirectDependencies();
+        linkProjectChildren(project, directDependencies);
+
+        // subprojects can only be reached from the root project or other subprojects
+        Set<ExternalId> writtenSubprojects = new HashSet<>();
+        List<Dependency> subprojectDependencies = new ArrayList<>();
+        Deque<Dependency> pending = new ArrayDeque<>(directDependencies);
+        while (!pending.isEmpty()) {
+            Dependency dependency = pending.pop();
+            if (dependency instanceof ProjectDependency && writtenSubprojects.add(dependency.getExternalId())) {
+                Set<Dependency> children = dependencyGraph.getChildrenForParent(dependency);
+                Project subproject = projectFromDependency(dependency);
+                linkProjectChildren(subproject, children);
+                nodeConsumer.node(subproject);
+                subprojectDependencies.add(dependency);
+                pending.addAll(children);
+            }
+        }
+
+        Set<ExternalId> writtenComponents = new HashSet<>();
+        pending.addAll(directDependencies);
+        for (Dependency subprojectDependency : subprojectDependencies) {
+            pending.addAll(dependencyGraph.getChildrenForParent(subprojectDependency));
+        }
+        while (!pending.isEmpty()) {
+            Dependency dependency = pending.pop();
+            if (!(dependency instanceof ProjectDependency) && writtenComponents.add(dependency.getExternalId())) {
+                Set<Dependency> children = dependencyGraph.getChildrenForParent(dependency);
+                Component component = componentFromDependency(dependency);
+                linkComponentChildren(component, children);
+                nodeConsumer.node(component);
+                for (Dependency child : children) {
+                    if (!writtenComponents.contains(child.getExternalId())) {
+                        pending.push(child);
+                    }
+                }
+            }
+        }
+
+        // We put the project node at the end of the document to be more inline with the way Black Duck produces BDIO 2.
+        nodeConsumer.node(project);
+    }
+
     /**
      * @deprecated (Use createBdio2Document instead when the ProjectDependencyGraph has an accurate ProjectDependency)
      */
@@ -200,6 +254,30 @@ public class Bdio2Factory {
         return Pair.of(addedSubprojects, addedComponents);
     }
 
+    private void linkProjectChildren(Project project, Set<Dependency> children) {
+        for (Dependency child : children) {
+            if (child instanceof ProjectDependency) {
+                Project subproject = projectFromDependency(child);
+                project.subproject(new Project(subproject.id()).subproject(subproject));
+            } else {
+                project.dependency(new com.blackducksoftware.bdio2.model.Dependency().dependsOn(componentFromDependency(child)));
+            }
+        }
+    }
+
+    private void linkComponentChildren(Component component, Set<Dependency> children) {
+        for (Dependency child : children) {
+            if (child instanceof ProjectDependency) {
+                logger.warn(
+                    "Skipping subproject {}. Failed to add the subproject to the graph because subprojects cannot be dependencies of components. Please contact Synopsys support.",
+                    child.getExternalId()
+                );
+            } else {
+                component.dependency(new com.blackducksoftware.bdio2.model.Dependency().dependsOn(componentFromDependency(child)));
+            }
+        }
+    }
+
     private Project projectFromDependency(Dependency dependency) {
         return new Project(dependency.getExternalId().createBdioId().toString())
             .name(dependency.getName())
@@ -223,6 +301,11 @@ public class Bdio2Factory {
             .collect(Collectors.toList());
     }
 
+    @FunctionalInterface
+    public interface NodeConsumer {
+        void node(BdioObject node) throws IOException;
+    }
+
     @FunctionalInterface
     private interface DependencyFunction {
         BdioObject dependency(@Nullable com.blackducksoftware.bdio2.model.Dependency dependency);
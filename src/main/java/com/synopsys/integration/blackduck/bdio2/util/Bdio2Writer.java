@@ -15,6 +15,7 @@ import com.blackducksoftware.bdio2.BdioMetadata;
 import com.blackducksoftware.bdio2.BdioWriter;
 import com.blackducksoftware.bdio2.model.Component;
 import com.blackducksoftware.bdio2.model.Project;
+import com.synopsys.integration.bdio.graph.ProjectDependencyGraph;
 import com.synopsys.integration.blackduck.bdio2.model.Bdio2Document;
 
 public class Bdio2Writer {
@@ -28,6 +29,24 @@ public class Bdio2Writer {
         writeBdioDocument(bdioWriter, bdio2Document.getProject(), bdio2Document.getSubProjects(), bdio2Document.getComponents());
     }
 
+    /**
+     * Writes the graph without building a Bdio2Document first - each node is written as soon as Bdio2Factory creates it, which keeps memory flat for very
+     * large graphs.
+     */
+    public void writeBdioDocument(OutputStream outputStream, BdioMetadata bdioMetadata, ProjectDependencyGraph dependencyGraph) throws IOException {
+        writeBdioDocument(outputStream, bdioMetadata, dependencyGraph, new Bdio2Factory());
+    }
+
+    public void writeBdioDocument(OutputStream outputStream, BdioMetadata bdioMetadata, ProjectDependencyGraph dependencyGraph, Bdio2Factory bdio2Factory) throws IOException {
+        BdioWriter bdioWriter = createBdioWriter(outputStream, bdioMetadata);
+        try {
+            bdioWriter.start();
+            bdio2Factory.createBdio2Nodes(dependencyGraph, bdioWriter::next);
+        } finally {
+            bdioWriter.close();
+        }
+    }
+
     public void writeBdioDocument(BdioWriter bdioWriter, Project project, List<Project> subProjects, List<Component> components) throws IOException {
         bdioWriter.start();
         for (Project subProject : subProjects) {
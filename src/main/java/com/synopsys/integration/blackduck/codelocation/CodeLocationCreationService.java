@@ -13,10 +13,13 @@ import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
 import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
 import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.blackduck.service.DataService;
 import com.synopsys.integration.blackduck.service.dataservice.NotificationService;
@@ -32,12 +35,31 @@ public class CodeLocationCreationService extends DataService {
     private final CodeLocationWaiter codeLocationWaiter;
     private final NotificationService notificationService;
     private final UserService userService;
+    private final SharedCodeLocationWaiter sharedCodeLocationWaiter;
 
     public CodeLocationCreationService(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, CodeLocationWaiter codeLocationWaiter, NotificationService notificationService, UserService userService) {
+        this(blackDuckApiClient, apiDiscovery, logger, codeLocationWaiter, notificationService, userService, null);
+    }
+
+    /**
+     * With a sharedCodeLocationWaiter, every wait is handled by the shared
+     * waiter's single poller (at its poll interval) rather than by a polling
+     * loop of its own.
+     */
+    public CodeLocationCreationService(
+        BlackDuckApiClient blackDuckApiClient,
+        ApiDiscovery apiDiscovery,
+        IntLogger logger,
+        CodeLocationWaiter codeLocationWaiter,
+        NotificationService notificationService,
+        UserService userService,
+        SharedCodeLocationWaiter sharedCodeLocationWaiter
+    ) {
         super(blackDuckApiClient, apiDiscovery, logger);
         this.codeLocationWaiter = codeLocationWaiter;
         this.notificationService = notificationService;
         this.userService = userService;
+        this.sharedCodeLocationWaiter = sharedCodeLocationWaiter;
     }
 
     public <T extends CodeLocationBatchOutput<?>> CodeLocationCreationData<T> createCodeLocations(CodeLocationCreationRequest<T> codeLocationCreationRequest) throws IntegrationException {
@@ -74,10 +96,34 @@ public class CodeLocationCreationService extends DataService {
 
     public CodeLocationWaitResult waitForCodeLocations(NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames,
         int expectedNotificationCount, long timeoutInSeconds, int waitIntervalInSeconds) throws IntegrationException, InterruptedException {
+        if (null != sharedCodeLocationWaiter) {
+            CompletableFuture<CodeLocationWaitResult> waitResult = sharedCodeLocationWaiter.waitForCodeLocations(notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds);
+            try {
+                return waitResult.get();
+            } catch (ExecutionException e) {
+                throw new BlackDuckIntegrationException(String.format("Encountered a problem waiting for code locations: %s", e.getCause().getMessage()), e.getCause());
+            }
+        }
+
         UserView currentUser = userService.findCurrentUser();
         return codeLocationWaiter.checkCodeLocationsAddedToBom(currentUser, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds, waitIntervalInSeconds);
     }
 
+    /**
+     * Requires a SharedCodeLocationWaiter - the returned future is completed by its poller, so no thread is blocked while waiting.
+     */
+    public CompletableFuture<CodeLocationWaitResult> waitForCodeLocationsAsync(NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames,
+        int expectedNotificationCount, long timeoutInSeconds) throws BlackDuckIntegrationException {
+        if (null == sharedCodeLocationWaiter) {
+            throw new BlackDuckIntegrationException("Waiting asynchronously requires a SharedCodeLocationWaiter.");
+        }
+        return sharedCodeLocationWaiter.waitForCodeLocations(notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds);
+    }
+
+    public Optional<SharedCodeLocationWaiter> getSharedCodeLocationWaiter() {
+        return Optional.ofNullable(sharedCodeLocationWaiter);
+    }
+
     public NotificationTaskRange calculateCodeLocationRange() throws IntegrationException {
         long startTime = System.currentTimeMillis();
         LocalDateTime localStartTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(startTime), ZoneOffset.UTC);
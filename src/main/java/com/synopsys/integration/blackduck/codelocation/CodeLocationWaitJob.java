@@ -7,14 +7,16 @@
  */
 package com.synopsys.integration.blackduck.codelocation;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
 import com.synopsys.integration.blackduck.api.generated.view.UserView;
@@ -34,6 +36,9 @@ import com.synopsys.integration.util.NameVersion;
 import com.synopsys.integration.wait.ResilientJob;
 
 public class CodeLocationWaitJob implements ResilientJob<CodeLocationWaitResult> {
+    // notifications can become visible after newer ones, so each retrieval reaches this far back past the newest one seen
+    public static final long NOTIFICATION_OVERLAP_MILLIS = 60 * 1000;
+
     private final IntLogger logger;
     private final ProjectService projectService;
     private final NotificationService notificationService;
@@ -48,6 +53,14 @@ public class CodeLocationWaitJob implements ResilientJob<CodeLocationWaitResult>
     private final Set<String> foundCodeLocationNames = new HashSet<>();
     private boolean complete;
 
+    // what has been seen so far, so that each attempt only needs to retrieve what is new
+    private ProjectVersionView projectVersionView;
+    private final Map<String, String> foundCodeLocations = new HashMap<>();
+    private Date newestNotificationCreatedAt;
+    private final Map<String, Date> seenNotificationKeys = new HashMap<>();
+    private final List<String> unmatchedNotificationCodeLocations = new ArrayList<>();
+    private int actualNotificationCount;
+
     public CodeLocationWaitJob(
         final IntLogger logger,
         final ProjectService projectService,
@@ -81,45 +94,84 @@ public class CodeLocationWaitJob implements ResilientJob<CodeLocationWaitResult>
     }
 
     private int retrieveCompletedCount(UserView userView, NotificationTaskRange notificationTaskRange) throws IntegrationException {
-        Optional<ProjectVersionWrapper> projectVersionWrapper = projectService.getProjectVersion(projectAndVersion);
-        if (!projectVersionWrapper.isPresent()) {
-            return 0;
+        if (null == projectVersionView) {
+            Optional<ProjectVersionWrapper> projectVersionWrapper = projectService.getProjectVersion(projectAndVersion);
+            if (!projectVersionWrapper.isPresent()) {
+                return 0;
+            }
+            projectVersionView = projectVersionWrapper.get().getProjectVersionView();
         }
-        ProjectVersionView projectVersionView = projectVersionWrapper.get().getProjectVersionView();
 
-        Map<String, String> foundCodeLocations = codeLocationsRetriever.retrieveCodeLocations(projectVersionView, codeLocationNames);
+        if (!foundCodeLocations.values().containsAll(codeLocationNames)) {
+            foundCodeLocations.putAll(codeLocationsRetriever.retrieveCodeLocations(projectVersionView, codeLocationNames));
+        }
+        // a BOM is only computed for a code location once it is mapped, so notifications that still can't be matched now belong to some other project version
+        matchNotificationsToCodeLocations();
+        unmatchedNotificationCodeLocations.clear();
 
-        int actualNotificationCount = 0;
         if (foundCodeLocations.size() > 0) {
-            logger.debug("At least one code location has been found, now looking for notifications.");
+            logger.debug("At least one code location has been found, now looking for new notifications.");
             List<VersionBomCodeLocationBomComputedNotificationUserView> notifications = getFilteredNotificationUserViews(userView, notificationTaskRange);
-            logger.debug(String.format("There were %d notifications found.", notifications.size()));
+            logger.debug(String.format("There were %d new notifications found.", notifications.size()));
 
             for (VersionBomCodeLocationBomComputedNotificationUserView notification : notifications) {
-                String codeLocationUrl = notification.getContent().getCodeLocation();
-                if (foundCodeLocations.containsKey(codeLocationUrl)) {
-                    String codeLocationName = foundCodeLocations.get(codeLocationUrl);
-                    foundCodeLocationNames.add(codeLocationName);
-                    actualNotificationCount++;
-                    logger.info(String.format("Found %s code location (%d of %d).", codeLocationName, actualNotificationCount, expectedNotificationCount));
-                }
+                unmatchedNotificationCodeLocations.add(notification.getContent().getCodeLocation());
             }
+            matchNotificationsToCodeLocations();
         }
 
         return actualNotificationCount;
     }
 
+    private void matchNotificationsToCodeLocations() {
+        // a notification can arrive before its code location is found, so it is kept until the code location shows up
+        Iterator<String> unmatched = unmatchedNotificationCodeLocations.iterator();
+        while (unmatched.hasNext()) {
+            String codeLocationUrl = unmatched.next();
+            if (foundCodeLocations.containsKey(codeLocationUrl)) {
+                unmatched.remove();
+                String codeLocationName = foundCodeLocations.get(codeLocationUrl);
+                foundCodeLocationNames.add(codeLocationName);
+                actualNotificationCount++;
+                logger.info(String.format("Found %s code location (%d of %d).", codeLocationName, actualNotificationCount, expectedNotificationCount));
+            }
+        }
+    }
+
     private List<VersionBomCodeLocationBomComputedNotificationUserView> getFilteredNotificationUserViews(UserView userView, NotificationTaskRange notificationTaskRange) throws IntegrationException {
-        Date startDate = notificationTaskRange.getStartDate();
+        // only notifications since shortly before the newest one already seen are retrieved - those seen before are skipped by key
+        Date startDate = getNotificationStartDate(notificationTaskRange);
         Date endDate = notificationTaskRange.getEndDate();
         List<String> typesToInclude = Arrays.asList(NotificationType.VERSION_BOM_CODE_LOCATION_BOM_COMPUTED.name());
         NotificationEditor notificationEditor = new NotificationEditor(startDate, endDate, typesToInclude);
         List<NotificationUserView> notifications = notificationService.getAllUserNotifications(userView, notificationEditor);
 
-        return notifications
-            .stream()
-            .map(VersionBomCodeLocationBomComputedNotificationUserView.class::cast)
-            .collect(Collectors.toList());
+        // keys from before this retrieval can't be returned again
+        seenNotificationKeys.values().removeIf(createdAt -> null != createdAt && createdAt.before(startDate));
+
+        List<VersionBomCodeLocationBomComputedNotificationUserView> newNotifications = new ArrayList<>();
+        for (NotificationUserView notification : notifications) {
+            VersionBomCodeLocationBomComputedNotificationUserView bomComputedNotification = (VersionBomCodeLocationBomComputedNotificationUserView) notification;
+            Date createdAt = bomComputedNotification.getCreatedAt();
+            String notificationKey = bomComputedNotification.getContent().getCodeLocation() + "@" + (null != createdAt ? createdAt.getTime() : "");
+            if (!seenNotificationKeys.containsKey(notificationKey)) {
+                seenNotificationKeys.put(notificationKey, createdAt);
+                newNotifications.add(bomComputedNotification);
+            }
+            if (null != createdAt && (null == newestNotificationCreatedAt || createdAt.after(newestNotificationCreatedAt))) {
+                newestNotificationCreatedAt = createdAt;
+            }
+        }
+        return newNotifications;
+    }
+
+    private Date getNotificationStartDate(NotificationTaskRange notificationTaskRange) {
+        Date taskStartDate = notificationTaskRange.getStartDate();
+        if (null == newestNotificationCreatedAt) {
+            return taskStartDate;
+        }
+        Date overlapStartDate = new Date(newestNotificationCreatedAt.getTime() - NOTIFICATION_OVERLAP_MILLIS);
+        return overlapStartDate.after(taskStartDate) ? overlapStartDate : taskStartDate;
     }
 
     @Override
@@ -22,7 +22,6 @@ import com.synopsys.integration.wait.ResilientJobConfig;
 import com.synopsys.integration.wait.ResilientJobExecutor;
 import com.synopsys.integration.wait.WaitJob;
 import com.synopsys.integration.wait.tracker.WaitIntervalTracker;
-import com.synopsys.integration.wait.tracker.WaitIntervalTrackerFactory;
 
 public class CodeLocationWaiter {
     private final IntLogger logger;
@@ -37,17 +36,25 @@ public class CodeLocationWaiter {
         this.notificationService = notificationService;
     }
 
+    /**
+     * The first wait is waitIntervalInSeconds, and each wait after that is
+     * double the last, up to ExponentialBackoffWaitIntervalTracker.DEFAULT_MAX_WAIT_INTERVAL_IN_SECONDS.
+     */
     public CodeLocationWaitResult checkCodeLocationsAddedToBom(UserView userView, NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount,
         long timeoutInSeconds, int waitIntervalInSeconds) throws IntegrationException, InterruptedException {
+        WaitIntervalTracker waitIntervalTracker = new ExponentialBackoffWaitIntervalTracker(timeoutInSeconds, waitIntervalInSeconds);
+        return checkCodeLocationsAddedToBom(userView, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, waitIntervalTracker);
+    }
+
+    public CodeLocationWaitResult checkCodeLocationsAddedToBom(UserView userView, NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount,
+        WaitIntervalTracker waitIntervalTracker) throws IntegrationException, InterruptedException {
         logger.debug("Expected notification count " + expectedNotificationCount);
         logger.debug("Expected code locations:");
         codeLocationNames.forEach(codeLocation -> logger.debug(String.format("  Code Location -> %s", codeLocation)));
         logger.debug("");
 
-        WaitIntervalTracker waitIntervalTracker = WaitIntervalTrackerFactory.createConstant(timeoutInSeconds, waitIntervalInSeconds);
         ResilientJobConfig jobConfig = new ResilientJobConfig(logger, notificationTaskRange.getTaskStartTime(), waitIntervalTracker);
 
-
         CodeLocationWaitJob codeLocationWaitJob = new CodeLocationWaitJob(logger, projectService, notificationService, userView, notificationTaskRange, projectAndVersion, codeLocationNames,
             expectedNotificationCount, blackDuckApiClient);
         ResilientJobExecutor resilientJobExecutor = new ResilientJobExecutor(jobConfig);
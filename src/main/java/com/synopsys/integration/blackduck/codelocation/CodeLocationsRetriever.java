@@ -48,4 +48,14 @@ public class CodeLocationsRetriever {
                    .collect(Collectors.toMap(codeLocationView -> codeLocationView.getHref().string(), CodeLocationView::getName, (href1, href2) -> href1));
     }
 
+    /**
+     * @return the name of every code location mapped to the project version, keyed by its url.
+     */
+    public Map<String, String> retrieveAllCodeLocations(ProjectVersionView projectVersionView) throws IntegrationException {
+        List<CodeLocationView> codeLocationViews = blackDuckApiClient.getAllResponses(projectVersionView.metaCodelocationsLink());
+        return codeLocationViews
+                   .stream()
+                   .collect(Collectors.toMap(codeLocationView -> codeLocationView.getHref().string(), CodeLocationView::getName, COLLAPSE_DUPLICATES));
+    }
+
 }
@@ -0,0 +1,58 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.codelocation;
+
+import com.synopsys.integration.wait.tracker.WaitIntervalTracker;
+
+/**
+ * Starts by waiting initialWaitIntervalInSeconds and doubles the wait after
+ * every attempt, never waiting more than maxWaitIntervalInSeconds. A wait is
+ * also shortened so the waits never add up to more than the timeout - a long
+ * wait shouldn't carry the job well past its timeout.
+ */
+public class ExponentialBackoffWaitIntervalTracker implements WaitIntervalTracker {
+    public static final int DEFAULT_MAX_WAIT_INTERVAL_IN_SECONDS = 60;
+
+    private final long maxTimeoutInSeconds;
+    private final int maxWaitIntervalInSeconds;
+    private int nextWaitIntervalInSeconds;
+    private long waitedInSeconds;
+
+    public ExponentialBackoffWaitIntervalTracker(long maxTimeoutInSeconds, int initialWaitIntervalInSeconds) {
+        this(maxTimeoutInSeconds, initialWaitIntervalInSeconds, Math.max(initialWaitIntervalInSeconds, DEFAULT_MAX_WAIT_INTERVAL_IN_SECONDS));
+    }
+
+    public ExponentialBackoffWaitIntervalTracker(long maxTimeoutInSeconds, int initialWaitIntervalInSeconds, int maxWaitIntervalInSeconds) {
+        this.maxTimeoutInSeconds = maxTimeoutInSeconds;
+        this.maxWaitIntervalInSeconds = Math.max(1, maxWaitIntervalInSeconds);
+        this.nextWaitIntervalInSeconds = Math.max(1, Math.min(initialWaitIntervalInSeconds, this.maxWaitIntervalInSeconds));
+    }
+
+    @Override
+    public long getMaxTimeoutInSeconds() {
+        return maxTimeoutInSeconds;
+    }
+
+    @Override
+    public int getNextWaitIntervalInSeconds() {
+        int waitIntervalInSeconds = nextWaitIntervalInSeconds;
+        nextWaitIntervalInSeconds = (int) Math.min((long) nextWaitIntervalInSeconds * 2, maxWaitIntervalInSeconds);
+
+        long remainingInSeconds = maxTimeoutInSeconds - waitedInSeconds;
+        if (remainingInSeconds > 0 && remainingInSeconds < waitIntervalInSeconds) {
+            waitIntervalInSeconds = (int) remainingInSeconds;
+        }
+        waitedInSeconds += waitIntervalInSeconds;
+        return waitIntervalInSeconds;
+    }
+
+    public int getMaxWaitIntervalInSeconds() {
+        return maxWaitIntervalInSeconds;
+    }
+
+}
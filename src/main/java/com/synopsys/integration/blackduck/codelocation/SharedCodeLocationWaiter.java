@@ -0,0 +1,393 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.codelocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.api.manual.enumeration.NotificationType;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationUserView;
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationUserView;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.dataservice.NotificationService;
+import com.synopsys.integration.blackduck.service.dataservice.ProjectService;
+import com.synopsys.integration.blackduck.service.dataservice.UserService;
+import com.synopsys.integration.blackduck.service.model.NotificationTaskRange;
+import com.synopsys.integration.blackduck.service.model.ProjectVersionWrapper;
+import com.synopsys.integration.blackduck.service.request.NotificationEditor;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.util.NameVersion;
+
+/**
+ * Waits for any number of code locations with a single poller. Rather than
+ * every wait polling the notifications on its own, one thread retrieves the
+ * new BOM computed notifications for the current user and hands them to every
+ * pending wait, so the polling load doesn't grow with the number of waits.
+ *
+ * The poller only runs while there are pending waits. Each wait's code
+ * locations are only looked up once a notification arrives that it can't yet
+ * match to one of its code locations, and a project version's code locations
+ * are retrieved at most once per poll, however many waits need them.
+ */
+public class SharedCodeLocationWaiter implements AutoCloseable {
+    public static final int DEFAULT_POLL_INTERVAL_IN_SECONDS = 15;
+
+    private static final List<String> BOM_COMPUTED_TYPES = Arrays.asList(NotificationType.VERSION_BOM_CODE_LOCATION_BOM_COMPUTED.name());
+
+    private final IntLogger logger;
+    private final ProjectService projectService;
+    private final NotificationService notificationService;
+    private final UserService userService;
+    private final CodeLocationsRetriever codeLocationsRetriever;
+    private final int pollIntervalInSeconds;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private final ConcurrentLinkedQueue<PendingWait> newWaits = new ConcurrentLinkedQueue<>();
+    private final Object pollerLock = new Object();
+    private ScheduledFuture<?> poller;
+    private boolean closed;
+
+    private final Queue<PendingWait> pendingWaits = new ConcurrentLinkedQueue<>();
+
+    // only touched by the poller thread
+    private final Map<String, SeenNotification> seenNotifications = new LinkedHashMap<>();
+    private UserView currentUser;
+    // the newest notification seen, or the start of a newly added wait if that is earlier
+    private Date notificationCursor;
+
+    public SharedCodeLocationWaiter(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ProjectService projectService, NotificationService notificationService, UserService userService) {
+        this(logger, blackDuckApiClient, projectService, notificationService, userService, DEFAULT_POLL_INTERVAL_IN_SECONDS);
+    }
+
+    public SharedCodeLocationWaiter(
+        IntLogger logger,
+        BlackDuckApiClient blackDuckApiClient,
+        ProjectService projectService,
+        NotificationService notificationService,
+        UserService userService,
+        int pollIntervalInSeconds
+    ) {
+        this.logger = logger;
+        this.projectService = projectService;
+        this.notificationService = notificationService;
+        this.userService = userService;
+        this.codeLocationsRetriever = new CodeLocationsRetriever(blackDuckApiClient);
+        this.pollIntervalInSeconds = Math.max(1, pollIntervalInSeconds);
+        this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blackduck-code-location-waiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return a future completed with COMPLETE once every code location has been added to the BOM, or with PARTIAL once the timeout (measured from the task start time) passes.
+     * @throws IllegalStateException if the waiter has been closed.
+     */
+    public CompletableFuture<CodeLocationWaitResult> waitForCodeLocations(
+        NotificationTaskRange notificationTaskRange,
+        NameVersion projectAndVersion,
+        Set<String> codeLocationNames,
+        int expectedNotificationCount,
+        long timeoutInSeconds
+    ) {
+        PendingWait pendingWait = new PendingWait(notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds);
+        synchronized (pollerLock) {
+            if (closed) {
+                throw new IllegalStateException("The code location waiter has been closed, so it can't wait for any more code locations.");
+            }
+            newWaits.add(pendingWait);
+            if (null == poller) {
+                poller = scheduledExecutorService.scheduleWithFixedDelay(this::poll, 0, pollIntervalInSeconds, TimeUnit.SECONDS);
+            }
+        }
+        return pendingWait.future;
+    }
+
+    @Override
+    public void close() {
+        synchronized (pollerLock) {
+            closed = true;
+        }
+        scheduledExecutorService.shutdownNow();
+        List<PendingWait> abandoned = new ArrayList<>(pendingWaits);
+        abandoned.addAll(newWaits);
+        for (PendingWait pendingWait : abandoned) {
+            pendingWait.future.complete(CodeLocationWaitResult.PARTIAL(pendingWait.foundCodeLocationNames, "The code location waiter was closed before all code locations were added to the BOM."));
+        }
+    }
+
+    private void poll() {
+        try {
+            try {
+                acceptNewWaits();
+                if (!pendingWaits.isEmpty()) {
+                    retrieveNewNotifications();
+                }
+            } catch (IntegrationException e) {
+                // a failed poll is retried on the next one - every wait still has its own timeout
+                logger.warn(String.format("Could not check for code locations: %s", e.getMessage()));
+            }
+
+            long currentTimeMillis = System.currentTimeMillis();
+            CodeLocationResolver codeLocationResolver = new CodeLocationResolver();
+            pendingWaits.removeIf(pendingWait -> pendingWait.checkCompletion(codeLocationResolver, currentTimeMillis));
+            pruneSeenNotifications();
+        } catch (RuntimeException e) {
+            // an exception escaping a scheduled task would silently stop all future polls
+            logger.error(String.format("Unexpected problem checking for code locations: %s", e.getMessage()));
+        }
+
+        if (pendingWaits.isEmpty()) {
+            stopIfIdle();
+        }
+    }
+
+    private void acceptNewWaits() throws IntegrationException {
+        if (null == currentUser && !newWaits.isEmpty()) {
+            currentUser = userService.findCurrentUser();
+        }
+
+        PendingWait newWait;
+        while (null != (newWait = newWaits.poll())) {
+            Date waitStartDate = newWait.notificationTaskRange.getStartDate();
+            if (null == notificationCursor || waitStartDate.before(notificationCursor)) {
+                // notifications already seen are skipped by key, so moving the cursor back only costs one larger retrieval
+                notificationCursor = waitStartDate;
+            }
+            for (SeenNotification seenNotification : seenNotifications.values()) {
+                newWait.offer(seenNotification);
+            }
+            pendingWaits.add(newWait);
+        }
+    }
+
+    /**
+     * A notification created before every pending wait started can't match
+     * any of them. If a new wait starts earlier, the cursor is moved back and
+     * such notifications are retrieved again.
+     */
+    private void pruneSeenNotifications() {
+        Date earliestStartDate = findEarliestStartDate();
+        if (null == earliestStartDate) {
+            return;
+        }
+
+        Iterator<SeenNotification> seen = seenNotifications.values().iterator();
+        while (seen.hasNext()) {
+            SeenNotification seenNotification = seen.next();
+            if (null != seenNotification.createdAt && seenNotification.createdAt.before(earliestStartDate)) {
+                seen.remove();
+            }
+        }
+    }
+
+    private Date findEarliestStartDate() {
+        Date earliestStartDate = null;
+        for (PendingWait pendingWait : pendingWaits) {
+            Date waitStartDate = pendingWait.notificationTaskRange.getStartDate();
+            if (null == earliestStartDate || waitStartDate.before(earliestStartDate)) {
+                earliestStartDate = waitStartDate;
+            }
+        }
+        return earliestStartDate;
+    }
+
+    private void stopIfIdle() {
+        synchronized (pollerLock) {
+            if (newWaits.isEmpty() && null != poller) {
+                poller.cancel(false);
+                poller = null;
+                seenNotifications.clear();
+                notificationCursor = null;
+            }
+        }
+    }
+
+    private void retrieveNewNotifications() throws IntegrationException {
+        // notifications can become visible after newer ones, so each poll looks back past the newest one seen - the seen keys skip the repeats
+        Date startDate = new Date(notificationCursor.getTime() - CodeLocationWaitJob.NOTIFICATION_OVERLAP_MILLIS);
+        Date earliestStartDate = findEarliestStartDate();
+        if (startDate.before(earliestStartDate)) {
+            startDate = earliestStartDate;
+        }
+
+        Date endDate = notificationCursor;
+        for (PendingWait pendingWait : pendingWaits) {
+            if (pendingWait.notificationTaskRange.getEndDate().after(endDate)) {
+                endDate = pendingWait.notificationTaskRange.getEndDate();
+            }
+        }
+
+        NotificationEditor notificationEditor = new NotificationEditor(startDate, endDate, BOM_COMPUTED_TYPES);
+        List<NotificationUserView> notifications = notificationService.getAllUserNotifications(currentUser, notificationEditor);
+        for (NotificationUserView notification : notifications) {
+            VersionBomCodeLocationBomComputedNotificationUserView bomComputedNotification = (VersionBomCodeLocationBomComputedNotificationUserView) notification;
+            SeenNotification seenNotification = new SeenNotification(bomComputedNotification.getContent().getCodeLocation(), bomComputedNotification.getCreatedAt());
+            if (null == seenNotifications.putIfAbsent(seenNotification.getKey(), seenNotification)) {
+                for (PendingWait pendingWait : pendingWaits) {
+                    pendingWait.offer(seenNotification);
+                }
+            }
+            if (null != seenNotification.createdAt && seenNotification.createdAt.after(notificationCursor)) {
+                notificationCursor = seenNotification.createdAt;
+            }
+        }
+    }
+
+    private static class SeenNotification {
+        private final String codeLocationUrl;
+        private final Date createdAt;
+
+        public SeenNotification(String codeLocationUrl, Date createdAt) {
+            this.codeLocationUrl = codeLocationUrl;
+            this.createdAt = createdAt;
+        }
+
+        public String getKey() {
+            return codeLocationUrl + "@" + (null != createdAt ? createdAt.getTime() : "");
+        }
+
+    }
+
+    /**
+     * Retrieves the code locations of each project version at most once per
+     * poll, and shares them with every wait on that project version.
+     */
+    private class CodeLocationResolver {
+        private final Map<String, Optional<Map<String, String>>> codeLocationsByProjectVersion = new HashMap<>();
+
+        /**
+         * @return every code location mapped to the project version, keyed by its url, or empty if the project version doesn't exist yet.
+         */
+        public Optional<Map<String, String>> resolveCodeLocations(NameVersion projectAndVersion) throws IntegrationException {
+            String projectVersionKey = projectAndVersion.getName() + "/" + projectAndVersion.getVersion();
+            Optional<Map<String, String>> codeLocations = codeLocationsByProjectVersion.get(projectVersionKey);
+            if (null == codeLocations) {
+                Optional<ProjectVersionWrapper> projectVersionWrapper = projectService.getProjectVersion(projectAndVersion);
+                if (projectVersionWrapper.isPresent()) {
+                    codeLocations = Optional.of(codeLocationsRetriever.retrieveAllCodeLocations(projectVersionWrapper.get().getProjectVersionView()));
+                } else {
+                    codeLocations = Optional.empty();
+                }
+                codeLocationsByProjectVersion.put(projectVersionKey, codeLocations);
+            }
+            return codeLocations;
+        }
+
+    }
+
+    private class PendingWait {
+        private final NotificationTaskRange notificationTaskRange;
+        private final NameVersion projectAndVersion;
+        private final Set<String> codeLocationNames;
+        private final int expectedNotificationCount;
+        private final long deadlineMillis;
+        private final CompletableFuture<CodeLocationWaitResult> future = new CompletableFuture<>();
+
+        private final Set<String> foundCodeLocationNames = new HashSet<>();
+        private final Map<String, String> foundCodeLocations = new HashMap<>();
+        private final List<String> unmatchedCodeLocationUrls = new ArrayList<>();
+        private boolean projectVersionFound;
+        private int actualNotificationCount;
+
+        public PendingWait(NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount, long timeoutInSeconds) {
+            this.notificationTaskRange = notificationTaskRange;
+            this.projectAndVersion = projectAndVersion;
+            this.codeLocationNames = codeLocationNames;
+            this.expectedNotificationCount = expectedNotificationCount;
+            this.deadlineMillis = notificationTaskRange.getTaskStartTime() + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        }
+
+        public void offer(SeenNotification seenNotification) {
+            if (null == seenNotification.createdAt || !seenNotification.createdAt.before(notificationTaskRange.getStartDate())) {
+                unmatchedCodeLocationUrls.add(seenNotification.codeLocationUrl);
+            }
+        }
+
+        /**
+         * @return true once the future has been completed.
+         */
+        public boolean checkCompletion(CodeLocationResolver codeLocationResolver, long currentTimeMillis) {
+            if (future.isDone()) {
+                return true;
+            }
+
+            try {
+                matchNotifications(codeLocationResolver);
+            } catch (IntegrationException e) {
+                logger.debug(String.format("Could not retrieve the code locations for %s: %s", projectAndVersion, e.getMessage()));
+            }
+
+            if (foundCodeLocationNames.containsAll(codeLocationNames) && actualNotificationCount >= expectedNotificationCount) {
+                logger.info("All code locations have been added to the BOM.");
+                future.complete(CodeLocationWaitResult.COMPLETE(foundCodeLocationNames));
+                return true;
+            } else if (currentTimeMillis >= deadlineMillis) {
+                String errorMessage = "It was not possible to verify the code locations were added to the BOM within the timeout provided.";
+                future.complete(CodeLocationWaitResult.PARTIAL(foundCodeLocationNames, errorMessage));
+                return true;
+            }
+            return false;
+        }
+
+        private void matchNotifications(CodeLocationResolver codeLocationResolver) throws IntegrationException {
+            if (unmatchedCodeLocationUrls.isEmpty()) {
+                return;
+            }
+
+            boolean unknownCodeLocation = unmatchedCodeLocationUrls.stream().anyMatch(url -> !foundCodeLocations.containsKey(url));
+            if (unknownCodeLocation && !foundCodeLocations.values().containsAll(codeLocationNames)) {
+                Optional<Map<String, String>> projectVersionCodeLocations = codeLocationResolver.resolveCodeLocations(projectAndVersion);
+                if (projectVersionCodeLocations.isPresent()) {
+                    projectVersionFound = true;
+                    projectVersionCodeLocations.get().forEach((codeLocationUrl, codeLocationName) -> {
+                        if (codeLocationNames.contains(codeLocationName)) {
+                            foundCodeLocations.put(codeLocationUrl, codeLocationName);
+                        }
+                    });
+                }
+            }
+
+            Iterator<String> unmatched = unmatchedCodeLocationUrls.iterator();
+            while (unmatched.hasNext()) {
+                String codeLocationUrl = unmatched.next();
+                if (foundCodeLocations.containsKey(codeLocationUrl)) {
+                    unmatched.remove();
+                    String codeLocationName = foundCodeLocations.get(codeLocationUrl);
+                    foundCodeLocationNames.add(codeLocationName);
+                    actualNotificationCount++;
+                    logger.info(String.format("Found %s code location (%d of %d).", codeLocationName, actualNotificationCount, expectedNotificationCount));
+                } else if (projectVersionFound) {
+                    // the BOM is only computed once a code location is mapped, so one that isn't in this project version belongs to some other wait
+                    unmatched.remove();
+                }
+            }
+        }
+
+    }
+
+}
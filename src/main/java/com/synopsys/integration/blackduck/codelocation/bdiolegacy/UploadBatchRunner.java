@@ -18,6 +18,7 @@ import com.synopsys.integration.blackduck.codelocation.upload.UploadBatch;
 import com.synopsys.integration.blackduck.codelocation.upload.UploadBatchOutput;
 import com.synopsys.integration.blackduck.codelocation.upload.UploadOutput;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.client.RequestCompression;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.log.IntLogger;
 
@@ -26,12 +27,18 @@ public class UploadBatchRunner {
     private final BlackDuckApiClient blackDuckApiClient;
     private final ApiDiscovery apiDiscovery;
     private final ExecutorService executorService;
+    private final RequestCompression requestCompression;
 
     public UploadBatchRunner(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, ExecutorService executorService) {
+        this(logger, blackDuckApiClient, apiDiscovery, executorService, RequestCompression.NONE);
+    }
+
+    public UploadBatchRunner(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, ExecutorService executorService, RequestCompression requestCompression) {
         this.logger = logger;
         this.blackDuckApiClient = blackDuckApiClient;
         this.apiDiscovery = apiDiscovery;
         this.executorService = executorService;
+        this.requestCompression = requestCompression;
     }
 
     public UploadBatchOutput executeUploads(UploadBatch uploadBatch) throws BlackDuckIntegrationException {
@@ -65,7 +72,7 @@ public class UploadBatchRunner {
     private List<UploadCallable> createCallables(UploadBatch uploadBatch) {
         List<UploadCallable> callables = uploadBatch.getUploadTargets()
                                              .stream()
-                                             .map(uploadTarget -> new UploadCallable(blackDuckApiClient, apiDiscovery, uploadTarget))
+                                             .map(uploadTarget -> new UploadCallable(blackDuckApiClient, apiDiscovery, uploadTarget, requestCompression))
                                              .collect(Collectors.toList());
 
         return callables;
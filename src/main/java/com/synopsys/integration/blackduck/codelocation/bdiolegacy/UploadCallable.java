@@ -7,11 +7,11 @@
  */
 package com.synopsys.integration.blackduck.codelocation.bdiolegacy;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Callable;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.http.entity.ContentType;
 import org.jetbrains.annotations.Nullable;
 
@@ -21,8 +21,11 @@ import com.synopsys.integration.blackduck.api.manual.response.BlackDuckStringRes
 import com.synopsys.integration.blackduck.codelocation.upload.UploadOutput;
 import com.synopsys.integration.blackduck.codelocation.upload.UploadTarget;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.RequestCompression;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.blackduck.service.request.BlackDuckResponseRequest;
+import com.synopsys.integration.rest.body.BodyContent;
+import com.synopsys.integration.rest.body.FileBodyContent;
 import com.synopsys.integration.rest.response.Response;
 import com.synopsys.integration.util.NameVersion;
 
@@ -33,29 +36,35 @@ public class UploadCallable implements Callable<UploadOutput> {
     @Nullable
     private final NameVersion projectAndVersion;
     private final String codeLocationName;
+    private final RequestCompression requestCompression;
 
     public UploadCallable(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, UploadTarget uploadTarget) {
+        this(blackDuckApiClient, apiDiscovery, uploadTarget, RequestCompression.NONE);
+    }
+
+    public UploadCallable(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, UploadTarget uploadTarget, RequestCompression requestCompression) {
         this.blackDuckApiClient = blackDuckApiClient;
         this.apiDiscovery = apiDiscovery;
         this.uploadTarget = uploadTarget;
         this.projectAndVersion = uploadTarget.getProjectAndVersion().orElse(null);
         this.codeLocationName = uploadTarget.getCodeLocationName();
+        this.requestCompression = requestCompression;
     }
 
     @Override
     public UploadOutput call() {
         try {
-            String jsonPayload;
-            try {
-                jsonPayload = FileUtils.readFileToString(uploadTarget.getUploadFile(), StandardCharsets.UTF_8);
-            } catch (IOException e) {
-                String errorMessage = String.format("Failed to initially read file: %s because %s", uploadTarget.getUploadFile().getAbsolutePath(), e.getMessage());
-                return UploadOutput.FAILURE(projectAndVersion, codeLocationName, errorMessage, e);
+            File uploadFile = uploadTarget.getUploadFile();
+            if (!uploadFile.isFile() || !uploadFile.canRead()) {
+                String errorMessage = String.format("Failed to initially read file: %s because it is not a readable file", uploadFile.getAbsolutePath());
+                return UploadOutput.FAILURE(projectAndVersion, codeLocationName, errorMessage, new IOException(errorMessage));
             }
 
+            // the file is streamed into the request rather than read into memory first
+            BodyContent bodyContent = requestCompression.apply(new FileBodyContent(uploadFile, ContentType.create(uploadTarget.getMediaType(), StandardCharsets.UTF_8)));
             UrlSingleResponse<BlackDuckStringResponse> stringResponse = new UrlSingleResponse<>(apiDiscovery.metaBomImportLink().getUrl(), BlackDuckStringResponse.class);
             BlackDuckResponseRequest request = new BlackDuckRequestBuilder()
-                                                   .postString(jsonPayload, ContentType.create(uploadTarget.getMediaType(), StandardCharsets.UTF_8))
+                                                   .postBodyContent(bodyContent)
                                                    .buildBlackDuckResponseRequest(stringResponse.getUrl());
 
             try (Response response = blackDuckApiClient.execute(request)) {
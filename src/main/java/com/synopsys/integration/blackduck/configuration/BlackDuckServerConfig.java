@@ -9,6 +9,7 @@ package com.synopsys.integration.blackduck.configuration;
 
 import static com.synopsys.integration.blackduck.configuration.BlackDuckServerConfigKeys.KEYS;
 
+import java.io.File;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
@@ -18,11 +19,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.http.client.ApiTokenBlackDuckHttpClient;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.ConnectionPoolConfig;
 import com.synopsys.integration.blackduck.http.client.CookieHeaderParser;
 import com.synopsys.integration.blackduck.http.client.CredentialsBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.DefaultBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.RequestCompression;
+import com.synopsys.integration.blackduck.http.client.RetryPolicy;
+import com.synopsys.integration.blackduck.http.client.cache.CacheTtlPolicy;
 import com.synopsys.integration.blackduck.http.client.cache.CachingHttpClient;
+import com.synopsys.integration.blackduck.http.client.cache.DiskResponseCache;
+import com.synopsys.integration.blackduck.http.client.cache.ResponseCache;
+import com.synopsys.integration.blackduck.http.client.throttle.ThrottlingHttpClient;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.builder.Buildable;
+import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.log.SilentIntLogger;
 import com.synopsys.integration.rest.HttpUrl;
@@ -65,23 +75,29 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
     private final AuthenticationSupport authenticationSupport;
     private final CookieHeaderParser cookieHeaderParser;
     private final ExecutorService executorService;
+    private final ConnectionPoolConfig connectionPoolConfig;
+    private final RequestCompression requestCompression;
+    private final RetryPolicy retryPolicy;
 
     BlackDuckServerConfig(
         HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, Credentials credentials, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
-        AuthenticationSupport authenticationSupport, CookieHeaderParser cookieHeaderParser, ExecutorService executorService) {
+        AuthenticationSupport authenticationSupport, CookieHeaderParser cookieHeaderParser, ExecutorService executorService, ConnectionPoolConfig connectionPoolConfig,
+        RequestCompression requestCompression, RetryPolicy retryPolicy) {
         this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, cookieHeaderParser, executorService, credentials,
-            null);
+            null, connectionPoolConfig, requestCompression, retryPolicy);
     }
 
     BlackDuckServerConfig(
         HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, String apiToken, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
-        AuthenticationSupport authenticationSupport, ExecutorService executorService) {
-        this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, null, executorService, null, apiToken);
+        AuthenticationSupport authenticationSupport, ExecutorService executorService, ConnectionPoolConfig connectionPoolConfig,
+        RequestCompression requestCompression, RetryPolicy retryPolicy) {
+        this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, null, executorService, null, apiToken,
+            connectionPoolConfig, requestCompression, retryPolicy);
     }
 
     private BlackDuckServerConfig(HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson,
         ObjectMapper objectMapper, AuthenticationSupport authenticationSupport, CookieHeaderParser cookieHeaderParser, ExecutorService executorService, Credentials credentials,
-        String apiToken) {
+        String apiToken, ConnectionPoolConfig connectionPoolConfig, RequestCompression requestCompression, RetryPolicy retryPolicy) {
         blackDuckUrl = url;
         this.solutionDetails = solutionDetails;
         this.credentials = credentials;
@@ -95,6 +111,9 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         this.authenticationSupport = authenticationSupport;
         this.cookieHeaderParser = cookieHeaderParser;
         this.executorService = executorService;
+        this.connectionPoolConfig = connectionPoolConfig;
+        this.requestCompression = null != requestCompression ? requestCompression : RequestCompression.NONE;
+        this.retryPolicy = null != retryPolicy ? retryPolicy : RetryPolicy.NONE;
     }
 
     public boolean shouldUseProxyForBlackDuck() {
@@ -185,6 +204,24 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         return createBlackDuckServicesFactory(blackDuckHttpClient, logger);
     }
 
+    /**
+     * Responses will also be cached in the cacheDirectory so that later runs
+     * can reuse (or cheaply revalidate) them rather than retrieving them again.
+     */
+    public BlackDuckServicesFactory createCachedBlackDuckServicesFactory(IntLogger logger, File cacheDirectory) {
+        BlackDuckHttpClient blackDuckHttpClient = createCacheHttpClient(logger, cacheDirectory);
+        return createBlackDuckServicesFactory(blackDuckHttpClient, logger);
+    }
+
+    /**
+     * Requests will back off when Black Duck answers with HTTP 429 or 503, so
+     * that parallel retrieval and uploads are safe to use against a shared server.
+     */
+    public BlackDuckServicesFactory createThrottledBlackDuckServicesFactory(IntLogger logger) {
+        BlackDuckHttpClient blackDuckHttpClient = createThrottlingHttpClient(logger);
+        return createBlackDuckServicesFactory(blackDuckHttpClient, logger);
+    }
+
     public BlackDuckServicesFactory createBlackDuckServicesFactory(BlackDuckHttpClient blackDuckHttpClient, IntLogger logger) {
         return new BlackDuckServicesFactory(intEnvironmentVariables, executorService, logger, blackDuckHttpClient, gson, objectMapper);
     }
@@ -202,13 +239,56 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         return new CachingHttpClient(blackDuckHttpClient);
     }
 
+    public CachingHttpClient createCacheHttpClient(IntLogger logger, File cacheDirectory) {
+        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        ResponseCache responseCache = new ResponseCache(ResponseCache.DEFAULT_MAX_SIZE_IN_BYTES, new DiskResponseCache(logger, cacheDirectory));
+        return new CachingHttpClient(blackDuckHttpClient, responseCache, new CacheTtlPolicy());
+    }
+
+    public ThrottlingHttpClient createThrottlingHttpClient(IntLogger logger) {
+        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        return new ThrottlingHttpClient(blackDuckHttpClient);
+    }
+
     public CredentialsBlackDuckHttpClient createCredentialsBlackDuckHttpClient(IntLogger logger) {
-        return new CredentialsBlackDuckHttpClient(logger, gson, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(), authenticationSupport, getCredentials().orElse(null),
-            cookieHeaderParser);
+        CredentialsBlackDuckHttpClient credentialsBlackDuckHttpClient = new CredentialsBlackDuckHttpClient(logger, gson, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(),
+            authenticationSupport, getCredentials().orElse(null), cookieHeaderParser);
+        applyConnectionPoolConfig(credentialsBlackDuckHttpClient, logger);
+        credentialsBlackDuckHttpClient.setRequestCompression(requestCompression);
+        credentialsBlackDuckHttpClient.setRetryPolicy(retryPolicy);
+        return credentialsBlackDuckHttpClient;
     }
 
     public ApiTokenBlackDuckHttpClient createApiTokenBlackDuckHttpClient(IntLogger logger) {
-        return new ApiTokenBlackDuckHttpClient(logger, gson, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(), authenticationSupport, getApiToken().orElse(null));
+        ApiTokenBlackDuckHttpClient apiTokenBlackDuckHttpClient = new ApiTokenBlackDuckHttpClient(logger, gson, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(),
+            authenticationSupport, getApiToken().orElse(null));
+        applyConnectionPoolConfig(apiTokenBlackDuckHttpClient, logger);
+        apiTokenBlackDuckHttpClient.setRequestCompression(requestCompression);
+        apiTokenBlackDuckHttpClient.setRetryPolicy(retryPolicy);
+        return apiTokenBlackDuckHttpClient;
+    }
+
+    private void applyConnectionPoolConfig(DefaultBlackDuckHttpClient blackDuckHttpClient, IntLogger logger) {
+        if (null == connectionPoolConfig) {
+            return;
+        }
+        try {
+            blackDuckHttpClient.setConnectionPoolConfig(connectionPoolConfig);
+        } catch (IntegrationException e) {
+            logger.warn(String.format("The connection pool could not be configured, the default will be used: %s", e.getMessage()));
+        }
+    }
+
+    public Optional<ConnectionPoolConfig> getConnectionPoolConfig() {
+        return Optional.ofNullable(connectionPoolConfig);
+    }
+
+    public RequestCompression getRequestCompression() {
+        return requestCompression;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
     }
 
     public boolean usingApiToken() {
@@ -19,8 +19,12 @@ import org.apache.commons.lang3.math.NumberUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.http.client.ConnectionPoolConfig;
 import com.synopsys.integration.blackduck.http.client.CookieHeaderParser;
+import com.synopsys.integration.blackduck.http.client.RequestCompression;
+import com.synopsys.integration.blackduck.http.client.RetryPolicy;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
+import com.synopsys.integration.blackduck.service.ConcurrencyLimitedExecutorService;
 import com.synopsys.integration.builder.BuilderProperties;
 import com.synopsys.integration.builder.BuilderPropertyKey;
 import com.synopsys.integration.builder.BuilderStatus;
@@ -67,6 +71,9 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
     private AuthenticationSupport authenticationSupport = new AuthenticationSupport();
     private CookieHeaderParser cookieHeaderParser = new CookieHeaderParser();
     private ExecutorService executorService = new NoThreadExecutorService();
+    private ConnectionPoolConfig connectionPoolConfig;
+    private RequestCompression requestCompression = RequestCompression.NONE;
+    private RetryPolicy retryPolicy = RetryPolicy.NONE;
 
     public BlackDuckServerConfigBuilder() {
         this(KEYS.common);
@@ -89,7 +96,7 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
         NameVersion solutionDetails = getSolutionDetails();
         ProxyInfo proxyInfo = getProxyInfo();
         if (StringUtils.isNotBlank(getApiToken())) {
-            return new BlackDuckServerConfig(blackDuckUrl, solutionDetails, getTimeoutInSeconds(), getApiToken(), proxyInfo, isTrustCert(), intEnvironmentVariables, gson, objectMapper, authenticationSupport, executorService);
+            return new BlackDuckServerConfig(blackDuckUrl, solutionDetails, getTimeoutInSeconds(), getApiToken(), proxyInfo, isTrustCert(), intEnvironmentVariables, gson, objectMapper, authenticationSupport, executorService, connectionPoolConfig, requestCompression, retryPolicy);
         } else {
             String username = getUsername();
             String password = getPassword();
@@ -98,7 +105,7 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
             Credentials credentials = credentialsBuilder.build();
 
             return new BlackDuckServerConfig(blackDuckUrl, solutionDetails, getTimeoutInSeconds(), credentials, proxyInfo, isTrustCert(), intEnvironmentVariables, gson, objectMapper, authenticationSupport, cookieHeaderParser,
-                executorService);
+                executorService, connectionPoolConfig, requestCompression, retryPolicy);
         }
     }
 
@@ -258,6 +265,59 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
         return this;
     }
 
+    /**
+     * Run uploads, scans and concurrent page retrieval on virtual threads
+     * (when the jvm supports them), with at most maxConcurrentTasks running
+     * for each of them at once.
+     */
+    public BlackDuckServerConfigBuilder setVirtualThreadExecutorService(int maxConcurrentTasks) {
+        this.executorService = ConcurrencyLimitedExecutorService.withVirtualThreads(maxConcurrentTasks);
+        return this;
+    }
+
+    public Optional<ConnectionPoolConfig> getConnectionPoolConfig() {
+        return Optional.ofNullable(connectionPoolConfig);
+    }
+
+    /**
+     * Size the pool of connections kept open to Black Duck. Without one, the
+     * http client allows only 2 connections per host, which caps any
+     * concurrent paging or uploads. The pool belongs to each client created
+     * from the config, which should then be closed when done with.
+     */
+    public BlackDuckServerConfigBuilder setConnectionPoolConfig(ConnectionPoolConfig connectionPoolConfig) {
+        this.connectionPoolConfig = connectionPoolConfig;
+        return this;
+    }
+
+    public RequestCompression getRequestCompression() {
+        return requestCompression;
+    }
+
+    /**
+     * Compress BDIO and scan uploads to this server. The default is
+     * RequestCompression.NONE, since only servers that accept a gzip
+     * Content-Encoding on uploads can use it.
+     */
+    public BlackDuckServerConfigBuilder setRequestCompression(RequestCompression requestCompression) {
+        this.requestCompression = requestCompression;
+        return this;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Retry idempotent requests that fail with a gateway error or a broken
+     * connection. The default is RetryPolicy.NONE, so a request is only sent
+     * once unless a policy such as RetryPolicy.DEFAULT is set here.
+     */
+    public BlackDuckServerConfigBuilder setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
     public AuthenticationSupport getAuthenticationSupport() {
         return authenticationSupport;
     }
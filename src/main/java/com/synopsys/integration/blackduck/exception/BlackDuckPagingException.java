@@ -0,0 +1,30 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.exception;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Iterators and streams can't throw checked exceptions, so a failure to
+ * retrieve a page while one is being consumed is reported with this wrapper.
+ */
+public class BlackDuckPagingException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final IntegrationException integrationException;
+
+    public BlackDuckPagingException(IntegrationException integrationException) {
+        super(integrationException.getMessage(), integrationException);
+        this.integrationException = integrationException;
+    }
+
+    public IntegrationException getIntegrationException() {
+        return integrationException;
+    }
+
+}
@@ -47,6 +47,7 @@ public class BlackDuckRequestBuilder {
     public static final int DEFAULT_OFFSET = 0;
 
     private final Request.Builder requestBuilder;
+    private boolean readOnly;
 
     public BlackDuckRequestBuilder() {
         this.requestBuilder = new Request.Builder();
@@ -62,10 +63,12 @@ public class BlackDuckRequestBuilder {
 
     public BlackDuckRequestBuilder(BlackDuckRequest<?, ?> blackDuckRequest) {
         this.requestBuilder = new Request.Builder(blackDuckRequest.getRequest());
+        this.readOnly = blackDuckRequest.isReadOnly();
     }
 
     public BlackDuckRequestBuilder(BlackDuckRequestBuilder blackDuckRequestBuilder) {
         this(blackDuckRequestBuilder.requestBuilder);
+        this.readOnly = blackDuckRequestBuilder.readOnly;
     }
 
     public Request build() {
@@ -166,6 +169,19 @@ public class BlackDuckRequestBuilder {
         return this;
     }
 
+    /**
+     * Responses to a read-only request won't retain their json, so they use
+     * much less memory, but they can't be used to update Black Duck.
+     */
+    public BlackDuckRequestBuilder readOnly() {
+        return readOnly(true);
+    }
+
+    public BlackDuckRequestBuilder readOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
     public BlackDuckRequestBuilder apply(BlackDuckRequestBuilderEditor editor) {
         editor.edit(this);
         return this;
@@ -261,4 +277,8 @@ public class BlackDuckRequestBuilder {
         return requestBuilder.getBodyContent();
     }
 
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
 }
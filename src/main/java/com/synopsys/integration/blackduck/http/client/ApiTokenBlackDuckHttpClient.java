@@ -9,11 +9,13 @@ package com.synopsys.integration.blackduck.http.client;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.methods.HttpUriRequest;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpUrl;
@@ -26,6 +28,9 @@ import com.synopsys.integration.util.NameVersion;
  * Connection to the Black Duck application which authenticates using the API token feature
  */
 public class ApiTokenBlackDuckHttpClient extends DefaultBlackDuckHttpClient {
+    private static final String BEARER_TOKEN_KEY = "bearerToken";
+    private static final String EXPIRES_IN_MILLISECONDS_KEY = "expiresInMilliseconds";
+
     private final String apiToken;
 
     public ApiTokenBlackDuckHttpClient(
@@ -48,7 +53,20 @@ public class ApiTokenBlackDuckHttpClient extends DefaultBlackDuckHttpClient {
 
     @Override
     protected void completeAuthenticationRequest(HttpUriRequest request, Response response) {
-        authenticationSupport.completeTokenAuthenticationRequest(request, response, logger, getGson(), this, "bearerToken");
+        authenticationSupport.completeTokenAuthenticationRequest(request, response, logger, getGson(), this, BEARER_TOKEN_KEY);
+    }
+
+    @Override
+    protected Optional<BearerToken> readBearerToken(Response authenticationResponse) throws IntegrationException {
+        long obtainedAtMillis = System.currentTimeMillis();
+        JsonObject jsonResponse = getGson().fromJson(authenticationResponse.getContentString(), JsonObject.class);
+        if (null == jsonResponse || !jsonResponse.has(BEARER_TOKEN_KEY)) {
+            return Optional.empty();
+        }
+
+        String token = jsonResponse.get(BEARER_TOKEN_KEY).getAsString();
+        long lifetimeMillis = jsonResponse.has(EXPIRES_IN_MILLISECONDS_KEY) ? jsonResponse.get(EXPIRES_IN_MILLISECONDS_KEY).getAsLong() : BearerToken.UNKNOWN_LIFETIME;
+        return Optional.of(new BearerToken(token, obtainedAtMillis, lifetimeMillis));
     }
 
 }
@@ -0,0 +1,62 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+/**
+ * A bearer token from Black Duck, and when it should be replaced. A token
+ * is refreshed in the background once REFRESH_AFTER_FRACTION of its lifetime
+ * has passed, so a new one is in hand before the old one lapses.
+ */
+public class BearerToken {
+    public static final String BEARER_PREFIX = "Bearer ";
+    public static final double REFRESH_AFTER_FRACTION = 0.8;
+    public static final long UNKNOWN_LIFETIME = -1;
+
+    private final String token;
+    private final long expiresAtMillis;
+    private final long refreshAtMillis;
+
+    public BearerToken(String token, long obtainedAtMillis, long lifetimeMillis) {
+        this.token = token;
+        if (lifetimeMillis > 0) {
+            this.expiresAtMillis = obtainedAtMillis + lifetimeMillis;
+            this.refreshAtMillis = obtainedAtMillis + (long) (lifetimeMillis * REFRESH_AFTER_FRACTION);
+        } else {
+            this.expiresAtMillis = Long.MAX_VALUE;
+            this.refreshAtMillis = Long.MAX_VALUE;
+        }
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getAuthorizationHeaderValue() {
+        return BEARER_PREFIX + token;
+    }
+
+    public boolean isExpired(long currentTimeMillis) {
+        return currentTimeMillis >= expiresAtMillis;
+    }
+
+    public boolean shouldRefresh(long currentTimeMillis) {
+        return currentTimeMillis >= refreshAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    /**
+     * @return Long.MAX_VALUE if Black Duck didn't report the token's lifetime, as it then never needs to be refreshed ahead of time.
+     */
+    public long getRefreshAtMillis() {
+        return refreshAtMillis;
+    }
+
+}
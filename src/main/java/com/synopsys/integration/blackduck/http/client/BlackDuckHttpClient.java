@@ -52,4 +52,18 @@ public interface BlackDuckHttpClient {
 
     Gson getGson();
 
+    /**
+     * @return how failed requests are retried - BlackDuckResponsesTransformer also uses it to retry a page that could not be read.
+     */
+    default RetryPolicy getRetryPolicy() {
+        return RetryPolicy.NONE;
+    }
+
+    /**
+     * @return how upload bodies sent to this server should be compressed.
+     */
+    default RequestCompression getRequestCompression() {
+        return RequestCompression.NONE;
+    }
+
 }
@@ -0,0 +1,60 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import com.synopsys.integration.util.Stringable;
+
+/**
+ * The limits of the pool of connections a DefaultBlackDuckHttpClient keeps
+ * open to Black Duck. Without one, the http client's defaults apply - only 2
+ * connections per route - so concurrent paging and uploads queue for a
+ * connection rather than running in parallel.
+ */
+public class ConnectionPoolConfig extends Stringable {
+    public static final int DEFAULT_MAX_TOTAL = 50;
+    public static final int DEFAULT_MAX_PER_ROUTE = 25;
+    public static final long DEFAULT_IDLE_EVICTION_SECONDS = 30;
+    public static final long NO_TIME_TO_LIVE = -1;
+
+    public static final ConnectionPoolConfig DEFAULT = new ConnectionPoolConfig(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_IDLE_EVICTION_SECONDS, NO_TIME_TO_LIVE);
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long idleEvictionSeconds;
+    private final long timeToLiveSeconds;
+
+    /**
+     * @param maxTotal the most connections open at once, to any host
+     * @param maxPerRoute the most connections open at once to a single host
+     * @param idleEvictionSeconds connections idle for longer will be closed (0 or less to keep them)
+     * @param timeToLiveSeconds connections older than this will not be reused (NO_TIME_TO_LIVE to reuse them indefinitely)
+     */
+    public ConnectionPoolConfig(int maxTotal, int maxPerRoute, long idleEvictionSeconds, long timeToLiveSeconds) {
+        this.maxTotal = Math.max(1, maxTotal);
+        this.maxPerRoute = Math.max(1, Math.min(this.maxTotal, maxPerRoute));
+        this.idleEvictionSeconds = idleEvictionSeconds;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public long getIdleEvictionSeconds() {
+        return idleEvictionSeconds;
+    }
+
+    public long getTimeToLiveSeconds() {
+        return timeToLiveSeconds;
+    }
+
+}
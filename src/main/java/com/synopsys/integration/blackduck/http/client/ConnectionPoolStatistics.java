@@ -0,0 +1,50 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import com.synopsys.integration.util.Stringable;
+
+public class ConnectionPoolStatistics extends Stringable {
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+
+    public ConnectionPoolStatistics(int leased, int pending, int available, int max) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+
+    /**
+     * @return the number of connections currently used by a request.
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return the number of requests waiting for a connection - anything above 0 means the pool limits are holding requests back.
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return the number of idle connections kept open for reuse.
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+}
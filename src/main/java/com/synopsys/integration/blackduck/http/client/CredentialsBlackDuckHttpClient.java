@@ -63,4 +63,11 @@ public class CredentialsBlackDuckHttpClient extends DefaultBlackDuckHttpClient {
         }
     }
 
+    @Override
+    protected Optional<BearerToken> readBearerToken(Response authenticationResponse) {
+        // the session cookie does not tell us when it expires, so it is only replaced after a 401
+        return cookieHeaderParser.parseBearerToken(authenticationResponse.getActualResponse().getAllHeaders())
+                   .map(token -> new BearerToken(token, System.currentTimeMillis(), BearerToken.UNKNOWN_LIFETIME));
+    }
+
 }
@@ -7,17 +7,42 @@
  */
 package com.synopsys.integration.blackduck.http.client;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.security.GeneralSecurityException;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContexts;
 
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
 import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
 import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
 import com.synopsys.integration.blackduck.useragent.BlackDuckCommon;
 import com.synopsys.integration.blackduck.useragent.UserAgentBuilder;
@@ -34,13 +59,22 @@ import com.synopsys.integration.rest.response.Response;
 import com.synopsys.integration.rest.support.AuthenticationSupport;
 import com.synopsys.integration.util.NameVersion;
 
-public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpClient implements BlackDuckHttpClient {
+public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpClient implements BlackDuckHttpClient, Closeable {
     private final Gson gson;
     private final HttpUrl blackDuckUrl;
     private final String userAgentString;
 
     protected final AuthenticationSupport authenticationSupport;
 
+    private RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private RequestCompression requestCompression = RequestCompression.NONE;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private final ReentrantLock authenticationLock = new ReentrantLock();
+    private volatile BearerToken bearerToken;
+    private ScheduledFuture<?> scheduledBearerTokenRefresh;
+    private final AtomicReference<IntegrationException> bearerTokenRefreshFailure = new AtomicReference<>();
+    private IdleConnectionEvictor idleConnectionEvictor;
+
     public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport) {
         this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, new UserAgentItem(solutionDetails), BlackDuckCommon.createUserAgentItem(), authenticationSupport);
     }
@@ -78,26 +112,208 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
         }
 
         Request request = requestBuilder.build();
+        throwIfBearerTokenCouldNotBeRefreshed();
 
-        try {
-            return super.execute(request);
-        } catch (IntegrationRestException e) {
-            throw transformException(e);
+        int attempt = 1;
+        while (true) {
+            boolean canRetry = retryPolicy.canRetry(attempt, request.getMethod());
+            try {
+                Response response = super.execute(request);
+                if (!canRetry || !retryPolicy.isRetryableStatusCode(response.getStatusCode())) {
+                    return response;
+                }
+                getLogger().debug(String.format("Attempt %d of %s returned %d - it will be retried.", attempt, request.getUrl().string(), response.getStatusCode()));
+                closeQuietly(response);
+            } catch (IntegrationRestException e) {
+                if (!canRetry || !retryPolicy.isRetryableStatusCode(e.getHttpStatusCode())) {
+                    throw transformException(e);
+                }
+                getLogger().debug(String.format("Attempt %d of %s failed (%s) - it will be retried.", attempt, request.getUrl().string(), e.getMessage()));
+            } catch (IntegrationException e) {
+                if (!canRetry || !retryPolicy.isRetryableException(e)) {
+                    throw e;
+                }
+                getLogger().debug(String.format("Attempt %d of %s failed (%s) - it will be retried.", attempt, request.getUrl().string(), e.getMessage()));
+            }
+
+            try {
+                retryPolicy.waitBeforeRetry(attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BlackDuckIntegrationException(String.format("Interrupted while waiting to retry %s", request.getUrl().string()), e);
+            }
+            attempt++;
         }
     }
 
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Idempotent requests (GET and HEAD by default) that fail with a gateway
+     * error or a broken connection will be retried according to the
+     * retryPolicy. The default, RetryPolicy.NONE, fails on the first attempt -
+     * RetryPolicy.DEFAULT suits most uses.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = null != retryPolicy ? retryPolicy : RetryPolicy.NONE;
+    }
+
+    @Override
+    public RequestCompression getRequestCompression() {
+        return requestCompression;
+    }
+
+    /**
+     * Only enable compression for servers known to accept a gzip
+     * Content-Encoding on uploads - the bodies are then sent chunked, with
+     * no Content-Length.
+     */
+    public void setRequestCompression(RequestCompression requestCompression) {
+        this.requestCompression = null != requestCompression ? requestCompression : RequestCompression.NONE;
+    }
+
+    /**
+     * Requests are given the current bearer token rather than each thread
+     * authenticating on its own. Only one authentication is ever in flight -
+     * other threads wait for its token - and a token is refreshed on a
+     * background thread before it expires, so no request waits for it. If
+     * that refresh fails, the first request after the token expires fails
+     * with the reason.
+     */
     @Override
     public boolean isAlreadyAuthenticated(HttpUriRequest request) {
+        Header authorizationHeader = request.getFirstHeader(AuthenticationSupport.AUTHORIZATION_HEADER);
+        boolean explicitlyAuthorized = null != authorizationHeader && !authorizationHeader.getValue().startsWith(BearerToken.BEARER_PREFIX);
+        if (explicitlyAuthorized || authenticationLock.isHeldByCurrentThread()) {
+            return authenticationSupport.isTokenAlreadyAuthenticated(request);
+        }
+
+        Optional<BearerToken> currentBearerToken = findCurrentBearerToken();
+        if (currentBearerToken.isPresent()) {
+            request.setHeader(AuthenticationSupport.AUTHORIZATION_HEADER, currentBearerToken.get().getAuthorizationHeaderValue());
+            return true;
+        }
         return authenticationSupport.isTokenAlreadyAuthenticated(request);
     }
 
     @Override
     public void handleErrorResponse(HttpUriRequest request, Response response) {
+        if (HttpStatus.SC_UNAUTHORIZED == response.getStatusCode()) {
+            forgetBearerToken(request);
+        }
         super.handleErrorResponse(request, response);
 
         authenticationSupport.handleTokenErrorResponse(this, request, response);
     }
 
+    /**
+     * @return the token (and its lifetime, if Black Duck reported one) from a successful authentication response.
+     */
+    protected Optional<BearerToken> readBearerToken(Response authenticationResponse) throws IntegrationException {
+        return Optional.empty();
+    }
+
+    private Optional<BearerToken> findCurrentBearerToken() {
+        BearerToken current = bearerToken;
+        if (null != current && !current.isExpired(System.currentTimeMillis())) {
+            return Optional.of(current);
+        }
+
+        authenticationLock.lock();
+        try {
+            current = bearerToken;
+            if (null == current || current.isExpired(System.currentTimeMillis())) {
+                try {
+                    authenticateForBearerToken();
+                } catch (IntegrationException e) {
+                    // the request will authenticate on its own, and fail with the reason if it can't
+                    getLogger().debug(String.format("Could not retrieve a Black Duck bearer token: %s", e.getMessage()));
+                }
+            }
+            return Optional.ofNullable(bearerToken).filter(token -> !token.isExpired(System.currentTimeMillis()));
+        } finally {
+            authenticationLock.unlock();
+        }
+    }
+
+    private void refreshBearerTokenAhead() {
+        authenticationLock.lock();
+        try {
+            authenticateForBearerToken();
+        } catch (IntegrationException e) {
+            getLogger().warn(String.format("Could not refresh the Black Duck bearer token before it expires: %s", e.getMessage()));
+            bearerTokenRefreshFailure.set(e);
+        } finally {
+            authenticationLock.unlock();
+        }
+    }
+
+    private void authenticateForBearerToken() throws IntegrationException {
+        try (Response response = attemptAuthentication()) {
+            if (null == response || !response.isStatusCodeSuccess()) {
+                String statusCode = null != response ? String.valueOf(response.getStatusCode()) : "no response";
+                throw new BlackDuckIntegrationException(String.format("Authenticating with Black Duck failed (%s).", statusCode));
+            }
+            Optional<BearerToken> newBearerToken = readBearerToken(response);
+            if (newBearerToken.isPresent()) {
+                bearerToken = newBearerToken.get();
+                bearerTokenRefreshFailure.set(null);
+                scheduleBearerTokenRefresh(newBearerToken.get());
+            }
+        } catch (IOException e) {
+            throw new BlackDuckIntegrationException(String.format("Could not close the authentication response: %s", e.getMessage()), e);
+        }
+    }
+
+    private synchronized void scheduleBearerTokenRefresh(BearerToken token) {
+        if (null != scheduledBearerTokenRefresh) {
+            scheduledBearerTokenRefresh.cancel(false);
+            scheduledBearerTokenRefresh = null;
+        }
+        if (Long.MAX_VALUE == token.getRefreshAtMillis()) {
+            return;
+        }
+
+        // the refresh only holds on to the client weakly, so a client that is never closed can still be collected
+        WeakReference<DefaultBlackDuckHttpClient> client = new WeakReference<>(this);
+        long delayMillis = Math.max(0, token.getRefreshAtMillis() - System.currentTimeMillis());
+        scheduledBearerTokenRefresh = BearerTokenRefreshScheduler.INSTANCE.schedule(() -> {
+            DefaultBlackDuckHttpClient blackDuckHttpClient = client.get();
+            if (null != blackDuckHttpClient && token == blackDuckHttpClient.bearerToken) {
+                blackDuckHttpClient.refreshBearerTokenAhead();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void throwIfBearerTokenCouldNotBeRefreshed() throws BlackDuckIntegrationException {
+        BearerToken current = bearerToken;
+        if (null != current && current.isExpired(System.currentTimeMillis())) {
+            // only the first request after the token expires fails, so later requests can try to authenticate again
+            IntegrationException refreshFailure = bearerTokenRefreshFailure.getAndSet(null);
+            if (null != refreshFailure) {
+                throw new BlackDuckIntegrationException(String.format("The Black Duck bearer token expired because it could not be refreshed: %s", refreshFailure.getMessage()), refreshFailure);
+            }
+        }
+    }
+
+    private void forgetBearerToken(HttpUriRequest request) {
+        BearerToken current = bearerToken;
+        Header authorizationHeader = request.getFirstHeader(AuthenticationSupport.AUTHORIZATION_HEADER);
+        if (null != current && null != authorizationHeader && current.getAuthorizationHeaderValue().equals(authorizationHeader.getValue())) {
+            authenticationLock.lock();
+            try {
+                if (current == bearerToken) {
+                    bearerToken = null;
+                }
+            } finally {
+                authenticationLock.unlock();
+            }
+        }
+    }
+
     @Override
     public void throwExceptionForError(Response response) throws IntegrationException {
         try {
@@ -133,6 +349,106 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
         httpClientBuilder.setRedirectStrategy(new BlackDuckRedirectStrategy());
     }
 
+    /**
+     * Replaces the http client's default connection pool with one sized by
+     * the connectionPoolConfig, used by every request this client makes. The
+     * pool belongs to this client alone and keeps a thread to evict idle
+     * connections, so close the client when it is no longer needed. This
+     * should be set before the first request.
+     */
+    public synchronized void setConnectionPoolConfig(ConnectionPoolConfig connectionPoolConfig) throws IntegrationException {
+        closeConnectionPool();
+
+        PoolingHttpClientConnectionManager poolingConnectionManager = new PoolingHttpClientConnectionManager(createSocketFactoryRegistry(), null, null, null,
+            connectionPoolConfig.getTimeToLiveSeconds(), TimeUnit.SECONDS);
+        poolingConnectionManager.setMaxTotal(connectionPoolConfig.getMaxTotal());
+        poolingConnectionManager.setDefaultMaxPerRoute(connectionPoolConfig.getMaxPerRoute());
+        getClientBuilder().setConnectionManager(poolingConnectionManager);
+        getClientBuilder().setConnectionManagerShared(true);
+        connectionManager = poolingConnectionManager;
+
+        if (connectionPoolConfig.getIdleEvictionSeconds() > 0) {
+            idleConnectionEvictor = new IdleConnectionEvictor(poolingConnectionManager, connectionPoolConfig.getIdleEvictionSeconds(), TimeUnit.SECONDS);
+            idleConnectionEvictor.start();
+        }
+    }
+
+    /**
+     * @return the current state of the pool, if one was configured with setConnectionPoolConfig.
+     */
+    public synchronized Optional<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+        if (null == connectionManager) {
+            return Optional.empty();
+        }
+        PoolStats totalStats = connectionManager.getTotalStats();
+        return Optional.of(new ConnectionPoolStatistics(totalStats.getLeased(), totalStats.getPending(), totalStats.getAvailable(), totalStats.getMax()));
+    }
+
+    /**
+     * Closes the connection pool, if one was configured, and stops refreshing
+     * the bearer token ahead of time. The client can still be used afterwards,
+     * with the http client's default connections.
+     */
+    @Override
+    public void close() {
+        closeConnectionPool();
+        synchronized (this) {
+            if (null != scheduledBearerTokenRefresh) {
+                scheduledBearerTokenRefresh.cancel(false);
+                scheduledBearerTokenRefresh = null;
+            }
+        }
+    }
+
+    public synchronized void closeConnectionPool() {
+        if (null != idleConnectionEvictor) {
+            idleConnectionEvictor.shutdown();
+            idleConnectionEvictor = null;
+        }
+        if (null != connectionManager) {
+            getClientBuilder().setConnectionManager(null);
+            getClientBuilder().setConnectionManagerShared(false);
+            connectionManager.shutdown();
+            connectionManager = null;
+        }
+    }
+
+    private Registry<ConnectionSocketFactory> createSocketFactoryRegistry() throws IntegrationException {
+        SSLConnectionSocketFactory sslConnectionSocketFactory;
+        if (isAlwaysTrustServerCertificate()) {
+            try {
+                SSLContext trustAllSslContext = SSLContexts.custom().loadTrustMaterial((chain, authType) -> true).build();
+                sslConnectionSocketFactory = new SSLConnectionSocketFactory(trustAllSslContext, NoopHostnameVerifier.INSTANCE);
+            } catch (GeneralSecurityException e) {
+                throw new BlackDuckIntegrationException(String.format("Could not create the connection pool: %s", e.getMessage()), e);
+            }
+        } else {
+            sslConnectionSocketFactory = SSLConnectionSocketFactory.getSocketFactory();
+        }
+
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                   .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                   .register("https", sslConnectionSocketFactory)
+                   .build();
+    }
+
+    private void closeQuietly(Response response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            getLogger().debug(String.format("Could not close a response that will be retried: %s", e.getMessage()));
+        }
+    }
+
+    // created on first use, so clients without a bearer token never start the thread
+    private static class BearerTokenRefreshScheduler {
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blackduck-bearer-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private IntegrationException transformException(IntegrationRestException e) {
         String httpResponseContent = e.getHttpResponseContent();
         Optional<ErrorResponse> optionalErrorResponse = extractErrorResponse(httpResponseContent);
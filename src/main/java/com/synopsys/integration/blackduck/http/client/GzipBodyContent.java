@@ -0,0 +1,36 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.GzipCompressingEntity;
+
+import com.synopsys.integration.rest.body.BodyContent;
+import com.synopsys.integration.rest.body.BodyContentConverter;
+
+/**
+ * Gzips another BodyContent while it is written to the connection. Nothing is buffered: the compressed body is sent chunked with a Content-Encoding of gzip, and
+ * it stays repeatable whenever the wrapped content is.
+ */
+public class GzipBodyContent implements BodyContent {
+    private final BodyContent bodyContent;
+
+    public GzipBodyContent(BodyContent bodyContent) {
+        this.bodyContent = bodyContent;
+    }
+
+    @Override
+    public HttpEntity createEntity(BodyContentConverter bodyContentConverter) {
+        return new GzipCompressingEntity(bodyContent.createEntity(bodyContentConverter));
+    }
+
+    public BodyContent getBodyContent() {
+        return bodyContent;
+    }
+
+}
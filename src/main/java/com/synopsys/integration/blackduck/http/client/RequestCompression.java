@@ -0,0 +1,26 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import com.synopsys.integration.rest.body.BodyContent;
+
+/**
+ * How large upload bodies (BDIO documents and scan files) are encoded before they are sent to Black Duck.
+ */
+public enum RequestCompression {
+    NONE,
+    GZIP;
+
+    public BodyContent apply(BodyContent bodyContent) {
+        if (GZIP == this) {
+            return new GzipBodyContent(bodyContent);
+        }
+        return bodyContent;
+    }
+
+}
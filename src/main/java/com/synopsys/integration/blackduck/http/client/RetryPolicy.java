@@ -0,0 +1,131 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+
+/**
+ * Which requests may be sent again after a transient failure (a gateway error
+ * or a broken connection), and how long to wait between attempts. Only
+ * idempotent methods without a body are retried by default, so that an
+ * upload is never sent twice.
+ *
+ * The wait before attempt n+1 is a random time between half and all of
+ * initialBackoffMillis * 2^(n-1), capped at maxBackoffMillis, so that many
+ * clients failing at once don't all come back at the same moment.
+ *
+ * 429 and 503 are not retried by default: they mean Black Duck is asking
+ * clients to slow down, which is left to the ThrottlingHttpClient so that
+ * it sees every such response and can honour Retry-After.
+ */
+public class RetryPolicy {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 500;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 10000;
+    public static final Set<Integer> DEFAULT_RETRYABLE_STATUS_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(502, 504)));
+    public static final Set<HttpMethod> DEFAULT_RETRYABLE_METHODS = Collections.unmodifiableSet(EnumSet.of(HttpMethod.GET, HttpMethod.HEAD));
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Set<Integer> retryableStatusCodes;
+    private final Set<HttpMethod> retryableMethods;
+
+    public RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis) {
+        this(maxAttempts, initialBackoffMillis, maxBackoffMillis, DEFAULT_RETRYABLE_STATUS_CODES, DEFAULT_RETRYABLE_METHODS);
+    }
+
+    public RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, Set<Integer> retryableStatusCodes, Set<HttpMethod> retryableMethods) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(0, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.retryableStatusCodes = retryableStatusCodes;
+        this.retryableMethods = retryableMethods;
+    }
+
+    public boolean canRetry(int attempt, HttpMethod httpMethod) {
+        return attempt < maxAttempts && retryableMethods.contains(httpMethod);
+    }
+
+    public boolean isRetryableStatusCode(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * @return true if the exception was caused by the connection (reset, timed out, etc.) rather than by a response from Black Duck.
+     */
+    public boolean isRetryableException(IntegrationException e) {
+        if (e instanceof IntegrationRestException || e instanceof BlackDuckApiException) {
+            return false;
+        }
+
+        Throwable cause = e.getCause();
+        while (null != cause) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    public long getBackoffMillis(int attempt) {
+        long backoffMillis = initialBackoffMillis;
+        for (int doubling = 1; doubling < attempt && backoffMillis < maxBackoffMillis; doubling++) {
+            backoffMillis *= 2;
+        }
+        backoffMillis = Math.min(maxBackoffMillis, backoffMillis);
+        if (backoffMillis <= 1) {
+            return backoffMillis;
+        }
+        long halfBackoffMillis = backoffMillis / 2;
+        return halfBackoffMillis + ThreadLocalRandom.current().nextLong(backoffMillis - halfBackoffMillis + 1);
+    }
+
+    public void waitBeforeRetry(int attempt) throws InterruptedException {
+        long backoffMillis = getBackoffMillis(attempt);
+        if (backoffMillis > 0) {
+            Thread.sleep(backoffMillis);
+        }
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    public Set<HttpMethod> getRetryableMethods() {
+        return retryableMethods;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Everything needed to recreate a successful response without holding on to
+ * the original http response.
+ */
+public class CacheEntry {
+    private static final int ESTIMATED_ENTRY_OVERHEAD_IN_BYTES = 256;
+
+    private final HttpUriRequest request;
+    private final int statusCode;
+    private final String statusMessage;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final long expiresAtMillis;
+    private final long sizeInBytes;
+
+    public CacheEntry(HttpUriRequest request, int statusCode, String statusMessage, Map<String, String> headers, byte[] body, long expiresAtMillis) {
+        this.request = request;
+        this.statusCode = statusCode;
+        this.statusMessage = statusMessage;
+        this.headers = null != headers ? Collections.unmodifiableMap(new HashMap<>(headers)) : Collections.emptyMap();
+        this.body = null != body ? body : new byte[0];
+        this.expiresAtMillis = expiresAtMillis;
+        this.sizeInBytes = estimateSizeInBytes(this.headers, this.body);
+    }
+
+    public CacheEntry withExpiresAtMillis(long expiresAtMillis) {
+        return new CacheEntry(request, statusCode, statusMessage, headers, body, expiresAtMillis);
+    }
+
+    public boolean isExpired(long currentTimeMillis) {
+        return currentTimeMillis >= expiresAtMillis;
+    }
+
+    public boolean canRevalidate() {
+        return null != getETag() || null != getLastModified();
+    }
+
+    public String getETag() {
+        return getHeaderValue(HttpHeaders.ETAG);
+    }
+
+    public String getLastModified() {
+        return getHeaderValue(HttpHeaders.LAST_MODIFIED);
+    }
+
+    public String getHeaderValue(String name) {
+        // http header names are case-insensitive
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    public HttpUriRequest getRequest() {
+        return request;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return the raw bytes of the body, shared with every reader of this entry, so they must not be modified.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getBodyString(Charset encoding) {
+        return new String(body, encoding);
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    private static long estimateSizeInBytes(Map<String, String> headers, byte[] body) {
+        long characters = 0;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            characters += header.getKey().length();
+            characters += null != header.getValue() ? header.getValue().length() : 0;
+        }
+        // header Strings can use two bytes per character, but the body is kept as the bytes that were received
+        return ESTIMATED_ENTRY_OVERHEAD_IN_BYTES + characters * 2 + body.length;
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import com.synopsys.integration.util.Stringable;
+
+public class CacheStatistics extends Stringable {
+    private final long hits;
+    private final long misses;
+    private final long revalidations;
+    private final long evictions;
+    private final long coalesced;
+    private final long diskReads;
+    private final int entryCount;
+    private final long sizeInBytes;
+    private final long maxSizeInBytes;
+
+    public CacheStatistics(long hits, long misses, long revalidations, long evictions, long coalesced, long diskReads, int entryCount, long sizeInBytes, long maxSizeInBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.revalidations = revalidations;
+        this.evictions = evictions;
+        this.coalesced = coalesced;
+        this.diskReads = diskReads;
+        this.entryCount = entryCount;
+        this.sizeInBytes = sizeInBytes;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of expired responses that Black Duck confirmed were still current (HTTP 304).
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of requests that waited for an identical request already in flight rather than sending their own.
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return the number of entries that were not in memory but were found on disk.
+     */
+    public long getDiskReads() {
+        return diskReads;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public long getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.synopsys.integration.rest.HttpUrl;
+
+/**
+ * Determines how long a cached response can be used before it has to be
+ * retrieved (or revalidated) again. The longest matching path prefix wins, so
+ * immutable resources like component versions can live much longer than
+ * project versions.
+ */
+public class CacheTtlPolicy {
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private final Duration defaultTtl;
+    private final Map<String, Duration> pathPrefixTtls = new LinkedHashMap<>();
+
+    public CacheTtlPolicy() {
+        this(DEFAULT_TTL);
+    }
+
+    public CacheTtlPolicy(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public CacheTtlPolicy addPathTtl(String pathPrefix, Duration ttl) {
+        pathPrefixTtls.put(pathPrefix, ttl);
+        return this;
+    }
+
+    public Duration getTtl(HttpUrl httpUrl) {
+        URL url = httpUrl.url();
+        String path = null != url ? url.getPath() : httpUrl.string();
+
+        Duration ttl = defaultTtl;
+        int longestMatch = -1;
+        for (Map.Entry<String, Duration> pathPrefixTtl : pathPrefixTtls.entrySet()) {
+            String pathPrefix = pathPrefixTtl.getKey();
+            if (path.startsWith(pathPrefix) && pathPrefix.length() > longestMatch) {
+                longestMatch = pathPrefix.length();
+                ttl = pathPrefixTtl.getValue();
+            }
+        }
+        return ttl;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+}
@@ -7,11 +7,17 @@
  */
 package com.synopsys.integration.blackduck.http.client.cache;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Optional;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 
@@ -23,14 +29,18 @@ import com.synopsys.integration.rest.response.Response;
 public class CacheableResponse implements Response {
     private final Request request;
     private final Response response;
-    private final Map<Request, Response> cache;
+    private final ResponseCache responseCache;
+    private final long expiresAtMillis;
 
-    private String stringResponse;
+    private byte[] content;
+    private InputStream partlyReadContent;
+    private CacheEntry cacheEntry;
 
-    public CacheableResponse(Request request, Response response, Map<Request, Response> cache) {
+    public CacheableResponse(Request request, Response response, ResponseCache responseCache, long expiresAtMillis) {
         this.request = request;
         this.response = response;
-        this.cache = cache;
+        this.responseCache = responseCache;
+        this.expiresAtMillis = expiresAtMillis;
     }
 
     @Override
@@ -60,29 +70,47 @@ public class CacheableResponse implements Response {
 
     @Override
     public InputStream getContent() throws IntegrationException {
-        return response.getContent();
+        if (null != content) {
+            return new ByteArrayInputStream(content);
+        }
+        if (null != partlyReadContent) {
+            return partlyReadContent;
+        }
+        if (!response.isStatusCodeSuccess()) {
+            return response.getContent();
+        }
+
+        // the content is copied as it is streamed, so it will be cached once the consumer reads all of it
+        return new CachingInputStream(response.getContent(), responseCache.getMaxSizeInBytes(), this::cacheContent);
     }
 
     @Override
     public String getContentString() throws IntegrationException {
-        if (null != stringResponse) {
-            return stringResponse;
-        }
-
-        stringResponse = response.getContentString();
-        cache.put(request, this);
-        return stringResponse;
+        return getContentString(StandardCharsets.UTF_8);
     }
 
     @Override
     public String getContentString(Charset encoding) throws IntegrationException {
-        if (null != stringResponse) {
-            return stringResponse;
+        if (null != content) {
+            return new String(content, encoding);
+        }
+        if (null != partlyReadContent) {
+            try (InputStream inputStream = partlyReadContent) {
+                return IOUtils.toString(inputStream, encoding);
+            } catch (IOException e) {
+                throw new IntegrationException(String.format("Could not read the response content: %s", e.getMessage()), e);
+            }
+        }
+        if (!response.isStatusCodeSuccess()) {
+            return response.getContentString(encoding);
         }
 
-        stringResponse = response.getContentString(encoding);
-        cache.put(request, this);
-        return stringResponse;
+        try (InputStream inputStream = response.getContent()) {
+            cacheContent(IOUtils.toByteArray(inputStream));
+        } catch (IOException e) {
+            throw new IntegrationException(String.format("Could not read the response content: %s", e.getMessage()), e);
+        }
+        return new String(content, encoding);
     }
 
     @Override
@@ -130,4 +158,64 @@ public class CacheableResponse implements Response {
         response.throwExceptionForError();
     }
 
+    /**
+     * Reads the content of a successful response ahead of the caller, as long
+     * as it fits in maxBytes, so it is cached even before the caller reads it.
+     * This doesn't rely on a Content-Length, so chunked responses are read too.
+     * Once more than maxBytes have been read, reading stops and the caller
+     * streams the content from the start as usual - it just isn't cached.
+     *
+     * @return true if all of the content was read and cached.
+     */
+    public boolean readContentUpTo(long maxBytes) throws IntegrationException {
+        if (null != content) {
+            return true;
+        }
+        if (null != partlyReadContent || !response.isStatusCodeSuccess()) {
+            return false;
+        }
+
+        InputStream inputStream = response.getContent();
+        try {
+            ByteArrayOutputStream readContent = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read = 0;
+            while (read >= 0 && readContent.size() <= maxBytes) {
+                int toRead = (int) Math.min(buffer.length, maxBytes + 1 - readContent.size());
+                read = inputStream.read(buffer, 0, toRead);
+                if (read > 0) {
+                    readContent.write(buffer, 0, read);
+                }
+            }
+
+            if (readContent.size() <= maxBytes) {
+                inputStream.close();
+                cacheContent(readContent.toByteArray());
+                return true;
+            }
+            partlyReadContent = new SequenceInputStream(new ByteArrayInputStream(readContent.toByteArray()), inputStream);
+            return false;
+        } catch (IOException e) {
+            try {
+                inputStream.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw new IntegrationException(String.format("Could not read the response content: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * @return the entry created once the content of a successful response has been read completely.
+     */
+    public Optional<CacheEntry> getCacheEntry() {
+        return Optional.ofNullable(cacheEntry);
+    }
+
+    private void cacheContent(byte[] content) {
+        this.content = content;
+        cacheEntry = new CacheEntry(response.getRequest(), response.getStatusCode(), response.getStatusMessage(), response.getHeaders(), content, expiresAtMillis);
+        responseCache.put(request, cacheEntry);
+    }
+
 }
@@ -0,0 +1,132 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * A response served entirely from a CacheEntry. There is no underlying http
+ * response, so getActualResponse() will return null.
+ */
+public class CachedResponse implements Response {
+    private final CacheEntry cacheEntry;
+
+    public CachedResponse(CacheEntry cacheEntry) {
+        this.cacheEntry = cacheEntry;
+    }
+
+    public CacheEntry getCacheEntry() {
+        return cacheEntry;
+    }
+
+    @Override
+    public HttpUriRequest getRequest() {
+        return cacheEntry.getRequest();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return cacheEntry.getStatusCode();
+    }
+
+    @Override
+    public boolean isStatusCodeSuccess() {
+        return getStatusCode() >= HttpStatus.SC_OK && getStatusCode() < HttpStatus.SC_MULTIPLE_CHOICES;
+    }
+
+    @Override
+    public boolean isStatusCodeError() {
+        return getStatusCode() >= HttpStatus.SC_BAD_REQUEST;
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return cacheEntry.getStatusMessage();
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream(cacheEntry.getBody());
+    }
+
+    @Override
+    public String getContentString() {
+        return cacheEntry.getBodyString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String getContentString(Charset encoding) {
+        return cacheEntry.getBodyString(encoding);
+    }
+
+    @Override
+    public Long getContentLength() {
+        return (long) cacheEntry.getBody().length;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return cacheEntry.getHeaderValue(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    @Override
+    public String getContentType() {
+        return cacheEntry.getHeaderValue(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return cacheEntry.getHeaders();
+    }
+
+    @Override
+    public String getHeaderValue(String name) {
+        return cacheEntry.getHeaderValue(name);
+    }
+
+    @Override
+    public CloseableHttpResponse getActualResponse() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        // there is nothing to release
+    }
+
+    @Override
+    public long getLastModified() throws IntegrationException {
+        String lastModified = cacheEntry.getLastModified();
+        if (null == lastModified) {
+            return 0L;
+        }
+        Date lastModifiedDate = DateUtils.parseDate(lastModified);
+        return null != lastModifiedDate ? lastModifiedDate.getTime() : 0L;
+    }
+
+    @Override
+    public void throwExceptionForError() throws IntegrationRestException {
+        // only successful responses are cached
+    }
+
+}
@@ -7,18 +7,26 @@
  */
 package com.synopsys.integration.blackduck.http.client.cache;
 
-import java.util.Collections;
-import java.util.Map;
+import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
-import org.apache.commons.collections4.map.LRUMap;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.HttpClientBuilder;
 
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
 import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.api.manual.response.BlackDuckResponseResponse;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.RequestCompression;
+import com.synopsys.integration.blackduck.http.client.RetryPolicy;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
@@ -31,28 +39,156 @@ import com.synopsys.integration.rest.response.Response;
 
 public class CachingHttpClient implements BlackDuckHttpClient {
     private final BlackDuckHttpClient blackDuckHttpClient;
-    private final Map<Request, Response> cache;
+    private final ResponseCache responseCache;
+    private final CacheTtlPolicy cacheTtlPolicy;
+    private final ConcurrentHashMap<Request, CompletableFuture<CacheEntry>> requestsInFlight = new ConcurrentHashMap<>();
 
     public CachingHttpClient(BlackDuckHttpClient blackDuckHttpClient) {
+        this(blackDuckHttpClient, new ResponseCache(), new CacheTtlPolicy());
+    }
+
+    public CachingHttpClient(BlackDuckHttpClient blackDuckHttpClient, ResponseCache responseCache, CacheTtlPolicy cacheTtlPolicy) {
         this.blackDuckHttpClient = blackDuckHttpClient;
-        this.cache = Collections.synchronizedMap(new LRUMap<>(1000));
+        this.responseCache = responseCache;
+        this.cacheTtlPolicy = cacheTtlPolicy;
     }
 
+    /**
+     * Empties the cache in memory. A disk tier is left as it is.
+     */
     public void emptyCache() {
-        cache.clear();
+        responseCache.clear();
+    }
+
+    public CacheStatistics getCacheStatistics() {
+        return responseCache.getStatistics();
     }
 
     @Override
     public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
         Request request = blackDuckRequest.getRequest();
-        if (HttpMethod.GET == request.getMethod() && cache.containsKey(request)) {
-            return cache.get(request);
+        if (HttpMethod.GET != request.getMethod()) {
+            return blackDuckHttpClient.execute(blackDuckRequest);
+        }
+
+        long currentTimeMillis = System.currentTimeMillis();
+        long expiresAtMillis = currentTimeMillis + cacheTtlPolicy.getTtl(blackDuckRequest.getUrl()).toMillis();
+        CacheEntry cacheEntry = responseCache.get(request);
+        if (null != cacheEntry && !cacheEntry.isExpired(currentTimeMillis)) {
+            responseCache.recordHit();
+            return new CachedResponse(cacheEntry);
+        }
+
+        if (BlackDuckResponseResponse.class.equals(blackDuckRequest.getResponseClass())) {
+            // raw responses may never be read completely, so there would be nothing to share with identical requests
+            return retrieve(blackDuckRequest, cacheEntry, expiresAtMillis);
+        }
+
+        CompletableFuture<CacheEntry> inFlight = new CompletableFuture<>();
+        CompletableFuture<CacheEntry> alreadyInFlight = requestsInFlight.putIfAbsent(request, inFlight);
+        if (null != alreadyInFlight) {
+            CacheEntry sharedEntry = waitForRequestInFlight(alreadyInFlight, blackDuckRequest);
+            if (null != sharedEntry) {
+                responseCache.recordCoalesced();
+                return new CachedResponse(sharedEntry);
+            }
+            // the request in flight couldn't be shared (it failed, for example) so this request has to be sent on its own
+            return retrieve(blackDuckRequest, responseCache.get(request), expiresAtMillis);
         }
+
+        CacheEntry sharedEntry = null;
+        try {
+            Response response = retrieve(blackDuckRequest, cacheEntry, expiresAtMillis);
+            try {
+                sharedEntry = readIntoCacheEntry(response);
+            } catch (IntegrationException | RuntimeException e) {
+                closeQuietly(response);
+                throw e;
+            }
+            return response;
+        } finally {
+            requestsInFlight.remove(request, inFlight);
+            inFlight.complete(sharedEntry);
+        }
+    }
+
+    private <T extends BlackDuckResponse, U extends UrlResponse<T>> Response retrieve(BlackDuckRequest<T, U> blackDuckRequest, CacheEntry cacheEntry, long expiresAtMillis)
+        throws IntegrationException {
+        Request request = blackDuckRequest.getRequest();
+        if (null != cacheEntry && cacheEntry.canRevalidate()) {
+            Response response = blackDuckHttpClient.execute(createConditionalRequest(blackDuckRequest, cacheEntry));
+            if (HttpStatus.SC_NOT_MODIFIED == response.getStatusCode()) {
+                closeQuietly(response);
+                CacheEntry revalidatedEntry = cacheEntry.withExpiresAtMillis(expiresAtMillis);
+                responseCache.put(request, revalidatedEntry);
+                responseCache.recordRevalidation();
+                return new CachedResponse(revalidatedEntry);
+            }
+            responseCache.recordMiss();
+            return new CacheableResponse(request, response, responseCache, expiresAtMillis);
+        }
+
+        responseCache.recordMiss();
         Response response = blackDuckHttpClient.execute(blackDuckRequest);
 
-        // the usage of the response will determine whether or not it is cached, because we can only cache responses IFF they are retrieved by string content
-        CacheableResponse cacheableResponse = new CacheableResponse(request, response, cache);
-        return cacheableResponse;
+        // the usage of the response will determine whether or not it is cached, because we can only cache responses IFF their content is read completely
+        return new CacheableResponse(request, response, responseCache, expiresAtMillis);
+    }
+
+    private CacheEntry readIntoCacheEntry(Response response) throws IntegrationException {
+        if (response instanceof CachedResponse) {
+            return ((CachedResponse) response).getCacheEntry();
+        } else if (response instanceof CacheableResponse && response.isStatusCodeSuccess() && !isKnownToBeTooLarge(response)) {
+            // the caller would read the content anyway - reading it now lets any identical requests share it
+            CacheableResponse cacheableResponse = (CacheableResponse) response;
+            if (cacheableResponse.readContentUpTo(responseCache.getMaxSizeInBytes())) {
+                return cacheableResponse.getCacheEntry().orElse(null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A response whose Content-Length is too large for the cache isn't read
+     * up front at all. Without a Content-Length (a chunked response, for
+     * example) the content is read up to the size of the cache - anything
+     * larger is left to stream to the caller, and identical requests are sent
+     * on their own.
+     */
+    private boolean isKnownToBeTooLarge(Response response) {
+        Long contentLength = response.getContentLength();
+        return null != contentLength && contentLength > responseCache.getMaxSizeInBytes();
+    }
+
+    private CacheEntry waitForRequestInFlight(CompletableFuture<CacheEntry> requestInFlight, BlackDuckRequest<?, ?> blackDuckRequest) throws IntegrationException {
+        try {
+            return requestInFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlackDuckIntegrationException(String.format("Interrupted while waiting for an identical request to %s", blackDuckRequest.getUrl().string()), e);
+        } catch (ExecutionException e) {
+            // requests in flight are always completed normally, but if that changes, this request can simply be sent on its own
+            return null;
+        }
+    }
+
+    private <T extends BlackDuckResponse, U extends UrlResponse<T>> BlackDuckRequest<T, U> createConditionalRequest(BlackDuckRequest<T, U> blackDuckRequest, CacheEntry cacheEntry) {
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder(blackDuckRequest);
+        if (null != cacheEntry.getETag()) {
+            blackDuckRequestBuilder.addHeader(HttpHeaders.IF_NONE_MATCH, cacheEntry.getETag());
+        }
+        if (null != cacheEntry.getLastModified()) {
+            blackDuckRequestBuilder.addHeader(HttpHeaders.IF_MODIFIED_SINCE, cacheEntry.getLastModified());
+        }
+        return new BlackDuckRequest<>(blackDuckRequestBuilder, blackDuckRequest.getUrlResponse());
+    }
+
+    private void closeQuietly(Response response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            getLogger().debug(String.format("Could not close a response: %s", e.getMessage()));
+        }
     }
 
     @Override
@@ -120,4 +256,14 @@ public class CachingHttpClient implements BlackDuckHttpClient {
         return blackDuckHttpClient.getGson();
     }
 
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return blackDuckHttpClient.getRetryPolicy();
+    }
+
+    @Override
+    public RequestCompression getRequestCompression() {
+        return blackDuckHttpClient.getRequestCompression();
+    }
+
 }
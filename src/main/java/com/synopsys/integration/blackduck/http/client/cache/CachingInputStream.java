@@ -0,0 +1,83 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Copies the bytes of a stream as they are read, so a consumer that streams
+ * the content can still have it cached. Only if the stream is read to the end
+ * without exceeding maxBytes is the copy handed to onComplete.
+ */
+public class CachingInputStream extends FilterInputStream {
+    private final long maxBytes;
+    private final Consumer<byte[]> onComplete;
+
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    public CachingInputStream(InputStream inputStream, long maxBytes, Consumer<byte[]> onComplete) {
+        super(inputStream);
+        this.maxBytes = maxBytes;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        if (read < 0) {
+            complete();
+        } else if (null != copy) {
+            copy.write(read);
+            abandonIfTooLarge();
+        }
+        return read;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read < 0) {
+            complete();
+        } else if (null != copy) {
+            copy.write(b, off, read);
+            abandonIfTooLarge();
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // skipped bytes can't be copied, so the content can't be cached
+        copy = null;
+        return super.skip(n);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void abandonIfTooLarge() {
+        if (copy.size() > maxBytes) {
+            copy = null;
+        }
+    }
+
+    private void complete() {
+        if (null != copy) {
+            byte[] content = copy.toByteArray();
+            copy = null;
+            onComplete.accept(content);
+        }
+    }
+
+}
@@ -0,0 +1,285 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.request.Request;
+
+/**
+ * A second cache tier that keeps responses in a directory so they survive the
+ * process. Each entry is a small gzip compressed file holding the status,
+ * headers (including any ETag/Last-Modified needed for revalidation), expiry,
+ * and body of the response.
+ *
+ * The disk cache is best effort - any problem reading or writing an entry is
+ * logged and treated as a miss. Since the entries are not encrypted and are
+ * keyed only by the request, a directory should not be shared between users
+ * with different permissions.
+ */
+public class DiskResponseCache {
+    public static final long DEFAULT_MAX_SIZE_IN_BYTES = 512L * 1024 * 1024;
+    public static final String ENTRY_EXTENSION = ".cache";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    // a temporary file this old was left by a writer that died, no write takes anywhere near this long
+    private static final long STALE_TEMPORARY_FILE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    // deflate can't compress by more than this, so no body can be larger than this many times its file
+    private static final long MAX_COMPRESSION_RATIO = 1032;
+
+    private final IntLogger logger;
+    private final File directory;
+    private final long maxSizeInBytes;
+    private final AtomicLong sizeInBytes = new AtomicLong();
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    public DiskResponseCache(IntLogger logger, File directory) {
+        this(logger, directory, DEFAULT_MAX_SIZE_IN_BYTES);
+    }
+
+    public DiskResponseCache(IntLogger logger, File directory, long maxSizeInBytes) {
+        this.logger = logger;
+        this.directory = directory;
+        this.maxSizeInBytes = maxSizeInBytes;
+
+        directory.mkdirs();
+        for (File entryFile : listEntryFiles()) {
+            sizeInBytes.addAndGet(entryFile.length());
+        }
+        deleteStaleTemporaryFiles();
+    }
+
+    public CacheEntry read(Request request) {
+        String cacheKey = createCacheKey(request);
+        File entryFile = getEntryFile(cacheKey);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream inputStream = new DataInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(entryFile))))) {
+            if (FORMAT_VERSION != inputStream.readInt() || !cacheKey.equals(inputStream.readUTF())) {
+                return null;
+            }
+            int statusCode = inputStream.readInt();
+            String statusMessage = inputStream.readBoolean() ? inputStream.readUTF() : null;
+            long expiresAtMillis = inputStream.readLong();
+            int headerCount = inputStream.readInt();
+            Map<String, String> headers = new HashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(inputStream.readUTF(), inputStream.readUTF());
+            }
+            int bodyLength = inputStream.readInt();
+            if (bodyLength < 0 || bodyLength > maxSizeInBytes || bodyLength > entryFile.length() * MAX_COMPRESSION_RATIO) {
+                // a damaged entry must not be trusted with an allocation of any size it claims
+                logger.debug(String.format("Could not read the cached response from %s: its body length (%d) is not valid", entryFile.getAbsolutePath(), bodyLength));
+                return null;
+            }
+            byte[] body = new byte[bodyLength];
+            inputStream.readFully(body);
+
+            // the modified time of the file is used to find the least recently used entries
+            entryFile.setLastModified(System.currentTimeMillis());
+            return new CacheEntry(createHttpUriRequest(request), statusCode, statusMessage, headers, body, expiresAtMillis);
+        } catch (IOException e) {
+            logger.debug(String.format("Could not read the cached response from %s: %s", entryFile.getAbsolutePath(), e.getMessage()));
+            return null;
+        }
+    }
+
+    public void write(Request request, CacheEntry cacheEntry) {
+        String cacheKey = createCacheKey(request);
+        File entryFile = getEntryFile(cacheKey);
+        File temporaryFile = null;
+
+        try {
+            // a unique name, so that writers in other threads or processes never share a temporary file
+            temporaryFile = File.createTempFile(cacheKey + ".", TEMPORARY_EXTENSION, directory);
+            try (DataOutputStream outputStream = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile))))) {
+                outputStream.writeInt(FORMAT_VERSION);
+                outputStream.writeUTF(cacheKey);
+                outputStream.writeInt(cacheEntry.getStatusCode());
+                outputStream.writeBoolean(null != cacheEntry.getStatusMessage());
+                if (null != cacheEntry.getStatusMessage()) {
+                    outputStream.writeUTF(cacheEntry.getStatusMessage());
+                }
+                outputStream.writeLong(cacheEntry.getExpiresAtMillis());
+                outputStream.writeInt(cacheEntry.getHeaders().size());
+                for (Map.Entry<String, String> header : cacheEntry.getHeaders().entrySet()) {
+                    outputStream.writeUTF(header.getKey());
+                    outputStream.writeUTF(null != header.getValue() ? header.getValue() : "");
+                }
+                byte[] body = cacheEntry.getBody();
+                outputStream.writeInt(body.length);
+                outputStream.write(body);
+            }
+
+            // readers (possibly in another process) only ever see complete entries
+            long replacedSize = entryFile.length();
+            long writtenSize = temporaryFile.length();
+            Files.move(temporaryFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (sizeInBytes.addAndGet(writtenSize - replacedSize) > maxSizeInBytes) {
+                trimLeastRecentlyUsed();
+            }
+        } catch (IOException e) {
+            logger.debug(String.format("Could not write the cached response to %s: %s", entryFile.getAbsolutePath(), e.getMessage()));
+            if (null != temporaryFile) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    public void remove(Request request) {
+        delete(getEntryFile(createCacheKey(request)));
+    }
+
+    /**
+     * Deletes every entry in the directory, including those written by other processes.
+     */
+    public void clear() {
+        for (File entryFile : listEntryFiles()) {
+            delete(entryFile);
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes.get();
+    }
+
+    public long getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    private void trimLeastRecentlyUsed() {
+        if (!trimLock.tryLock()) {
+            // another thread is already trimming
+            return;
+        }
+        try {
+            deleteStaleTemporaryFiles();
+
+            // reads keep touching the files, so their times are taken once - sorting on times that change mid-sort can fail
+            List<Map.Entry<File, Long>> entryFilesByLastUse = new ArrayList<>();
+            for (File entryFile : listEntryFiles()) {
+                entryFilesByLastUse.add(new AbstractMap.SimpleImmutableEntry<>(entryFile, entryFile.lastModified()));
+            }
+            entryFilesByLastUse.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<File, Long> entryFileByLastUse : entryFilesByLastUse) {
+                if (sizeInBytes.get() <= maxSizeInBytes) {
+                    break;
+                }
+                delete(entryFileByLastUse.getKey());
+            }
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    private void delete(File entryFile) {
+        long length = entryFile.length();
+        if (entryFile.delete()) {
+            sizeInBytes.addAndGet(-length);
+        }
+    }
+
+    private void deleteStaleTemporaryFiles() {
+        File[] temporaryFiles = directory.listFiles((dir, name) -> name.endsWith(TEMPORARY_EXTENSION));
+        if (null == temporaryFiles) {
+            return;
+        }
+        long staleBefore = System.currentTimeMillis() - STALE_TEMPORARY_FILE_MILLIS;
+        for (File temporaryFile : temporaryFiles) {
+            if (temporaryFile.lastModified() < staleBefore) {
+                // temporary files are never counted in the size
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    private File[] listEntryFiles() {
+        File[] entryFiles = directory.listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+        return null != entryFiles ? entryFiles : new File[0];
+    }
+
+    private File getEntryFile(String cacheKey) {
+        return new File(directory, cacheKey + ENTRY_EXTENSION);
+    }
+
+    // the original http request isn't stored, but the one it was made from can be rebuilt from what the entry is keyed by
+    private HttpUriRequest createHttpUriRequest(Request request) {
+        RequestBuilder requestBuilder = RequestBuilder.create(request.getMethod().name()).setUri(request.getUrl().string());
+        for (Map.Entry<String, Set<String>> queryParameter : request.getQueryParameters().entrySet()) {
+            for (String value : queryParameter.getValue()) {
+                requestBuilder.addParameter(queryParameter.getKey(), value);
+            }
+        }
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            requestBuilder.addHeader(header.getKey(), header.getValue());
+        }
+        return requestBuilder.build();
+    }
+
+    private String createCacheKey(Request request) {
+        // sorting makes the key independent of the order the request was built in
+        StringBuilder keyMaterial = new StringBuilder();
+        keyMaterial.append(request.getMethod().name()).append('\n');
+        keyMaterial.append(request.getUrl().string()).append('\n');
+        for (Map.Entry<String, Set<String>> queryParameter : new TreeMap<>(request.getQueryParameters()).entrySet()) {
+            keyMaterial.append(queryParameter.getKey()).append('=').append(new TreeSet<>(queryParameter.getValue())).append('\n');
+        }
+        for (Map.Entry<String, String> header : new TreeMap<>(request.getHeaders()).entrySet()) {
+            keyMaterial.append(header.getKey()).append(':').append(header.getValue()).append('\n');
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyMaterial.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder cacheKey = new StringBuilder();
+            for (byte digestByte : digest) {
+                cacheKey.append(String.format("%02x", digestByte));
+            }
+            return cacheKey.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
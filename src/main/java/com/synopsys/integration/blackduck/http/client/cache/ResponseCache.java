@@ -0,0 +1,218 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.synopsys.integration.rest.request.Request;
+
+/**
+ * A cache of responses, bounded by the estimated total size of the cached
+ * responses rather than by their count. Reads and writes don't block each
+ * other - when the cache grows beyond its size, entries are evicted by
+ * whichever thread gets there first. Eviction approximates least recently
+ * used with a clock: entries are visited in the order they were added, and
+ * an entry read since the last visit is given a second chance, so evicting
+ * costs the same however many entries there are.
+ *
+ * If a DiskResponseCache is provided, every entry is also written through to
+ * disk, and entries not in memory are looked for on disk before giving up.
+ */
+public class ResponseCache {
+    public static final long DEFAULT_MAX_SIZE_IN_BYTES = 64L * 1024 * 1024;
+
+    private final long maxSizeInBytes;
+    private final ConcurrentHashMap<Request, CacheNode> entries = new ConcurrentHashMap<>();
+    private final AtomicLong sizeInBytes = new AtomicLong();
+    private final ConcurrentLinkedQueue<CacheNode> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong diskReads = new AtomicLong();
+
+    private final DiskResponseCache diskResponseCache;
+
+    public ResponseCache() {
+        this(DEFAULT_MAX_SIZE_IN_BYTES);
+    }
+
+    public ResponseCache(long maxSizeInBytes) {
+        this(maxSizeInBytes, null);
+    }
+
+    public ResponseCache(long maxSizeInBytes, DiskResponseCache diskResponseCache) {
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.diskResponseCache = diskResponseCache;
+    }
+
+    public CacheEntry get(Request request) {
+        CacheNode cacheNode = entries.get(request);
+        if (null != cacheNode) {
+            cacheNode.referenced = true;
+            return cacheNode.cacheEntry;
+        }
+
+        if (null != diskResponseCache) {
+            CacheEntry cacheEntry = diskResponseCache.read(request);
+            if (null != cacheEntry) {
+                diskReads.incrementAndGet();
+                putInMemory(request, cacheEntry);
+                return cacheEntry;
+            }
+        }
+        return null;
+    }
+
+    public void put(Request request, CacheEntry cacheEntry) {
+        if (null != diskResponseCache) {
+            diskResponseCache.write(request, cacheEntry);
+        }
+        putInMemory(request, cacheEntry);
+    }
+
+    public void remove(Request request) {
+        removeFromMemory(request);
+        if (null != diskResponseCache) {
+            diskResponseCache.remove(request);
+        }
+    }
+
+    /**
+     * Only the entries in memory are cleared - the disk tier outlives the
+     * process and may be shared, so it has to be cleared on its own with
+     * getDiskResponseCache().
+     */
+    public void clear() {
+        for (Request request : entries.keySet()) {
+            removeFromMemory(request);
+        }
+    }
+
+    public Optional<DiskResponseCache> getDiskResponseCache() {
+        return Optional.ofNullable(diskResponseCache);
+    }
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public void recordRevalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    public void recordCoalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.get(), misses.get(), revalidations.get(), evictions.get(), coalesced.get(), diskReads.get(), entries.size(), sizeInBytes.get(), maxSizeInBytes);
+    }
+
+    public long getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    private void putInMemory(Request request, CacheEntry cacheEntry) {
+        if (cacheEntry.getSizeInBytes() > maxSizeInBytes) {
+            // caching it would only push everything else out
+            removeFromMemory(request);
+            return;
+        }
+
+        CacheNode cacheNode = new CacheNode(request, cacheEntry);
+        CacheNode replaced = entries.put(request, cacheNode);
+        sizeInBytes.addAndGet(cacheEntry.getSizeInBytes());
+        if (null != replaced) {
+            sizeInBytes.addAndGet(-replaced.cacheEntry.getSizeInBytes());
+        }
+        clock.add(cacheNode);
+        int clockedNodes = clockSize.incrementAndGet();
+
+        if (sizeInBytes.get() > maxSizeInBytes) {
+            evict();
+        } else if (clockedNodes > 2 * entries.size() + 64) {
+            // replaced and removed entries stay in the clock until it reaches them
+            removeStaleFromClock();
+        }
+    }
+
+    private void removeFromMemory(Request request) {
+        CacheNode removed = entries.remove(request);
+        if (null != removed) {
+            sizeInBytes.addAndGet(-removed.cacheEntry.getSizeInBytes());
+        }
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            // another thread is already evicting
+            return;
+        }
+        try {
+            CacheNode cacheNode;
+            while (sizeInBytes.get() > maxSizeInBytes && null != (cacheNode = clock.poll())) {
+                clockSize.decrementAndGet();
+                if (cacheNode.referenced && entries.get(cacheNode.request) == cacheNode) {
+                    cacheNode.referenced = false;
+                    clock.add(cacheNode);
+                    clockSize.incrementAndGet();
+                } else if (entries.remove(cacheNode.request, cacheNode)) {
+                    // only the exact node from the clock is removed - it may have been replaced in the meantime
+                    sizeInBytes.addAndGet(-cacheNode.cacheEntry.getSizeInBytes());
+                    evictions.incrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void removeStaleFromClock() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            clock.removeIf(cacheNode -> {
+                if (entries.get(cacheNode.request) == cacheNode) {
+                    return false;
+                }
+                clockSize.decrementAndGet();
+                return true;
+            });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static class CacheNode {
+        private final Request request;
+        private final CacheEntry cacheEntry;
+        private volatile boolean referenced;
+
+        public CacheNode(Request request, CacheEntry cacheEntry) {
+            this.request = request;
+            this.cacheEntry = cacheEntry;
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.throttle;
+
+import java.util.function.LongSupplier;
+
+/**
+ * An additive increase/multiplicative decrease limit on the requests in
+ * flight to a single host. Every successful response raises the limit by
+ * 1/limit (so roughly one more request per round of requests), and a
+ * throttling response cuts it by backoffRatio and pauses all new requests
+ * until the server's Retry-After has passed.
+ */
+public class AdaptiveConcurrencyLimit {
+    public static final int DEFAULT_INITIAL_LIMIT = 8;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 64;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.5;
+    public static final long DEFAULT_DECREASE_COOLDOWN_MILLIS = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final LongSupplier currentTimeMillis;
+
+    private double limit;
+    private int inFlight = 0;
+    private int waiting = 0;
+    private long pausedUntilMillis = 0;
+    private long lastDecreaseMillis = Long.MIN_VALUE;
+    private long successes = 0;
+    private long throttles = 0;
+
+    public AdaptiveConcurrencyLimit() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_BACKOFF_RATIO);
+    }
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, backoffRatio, System::currentTimeMillis);
+    }
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, LongSupplier currentTimeMillis) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio > 0 && backoffRatio < 1 ? backoffRatio : DEFAULT_BACKOFF_RATIO;
+        this.currentTimeMillis = currentTimeMillis;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public synchronized void acquire() throws InterruptedException {
+        waiting++;
+        try {
+            while (true) {
+                long pausedMillis = pausedUntilMillis - currentTimeMillis.getAsLong();
+                if (pausedMillis > 0) {
+                    wait(pausedMillis);
+                } else if (inFlight >= getCurrentLimit()) {
+                    wait();
+                } else {
+                    break;
+                }
+            }
+            inFlight++;
+        } finally {
+            waiting--;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        successes++;
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+        release();
+    }
+
+    /**
+     * Only the first throttling response within the cooldown will lower the
+     * limit, so that the requests that were already in flight when the server
+     * started throttling don't collapse the limit to the minimum.
+     * @param retryAfterMillis how long the server asked us to wait, or 0 if it did not say
+     * @return true if the limit was lowered
+     */
+    public synchronized boolean onThrottled(long retryAfterMillis) {
+        throttles++;
+        long now = currentTimeMillis.getAsLong();
+        pausedUntilMillis = Math.max(pausedUntilMillis, now + Math.max(0, retryAfterMillis));
+
+        boolean decreased = false;
+        if (lastDecreaseMillis == Long.MIN_VALUE || now - lastDecreaseMillis >= DEFAULT_DECREASE_COOLDOWN_MILLIS) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            lastDecreaseMillis = now;
+            decreased = true;
+        }
+        release();
+        return decreased;
+    }
+
+    /**
+     * For requests that ended without telling us anything about the server's load (errors, exceptions).
+     */
+    public synchronized void onIgnored() {
+        release();
+    }
+
+    public synchronized int getCurrentLimit() {
+        return (int) limit;
+    }
+
+    public synchronized ThrottleStatistics getThrottleStatistics() {
+        long pausedMillis = Math.max(0, pausedUntilMillis - currentTimeMillis.getAsLong());
+        return new ThrottleStatistics(getCurrentLimit(), minLimit, maxLimit, inFlight, waiting, successes, throttles, pausedMillis);
+    }
+
+    private void release() {
+        inFlight = Math.max(0, inFlight - 1);
+        notifyAll();
+    }
+
+}
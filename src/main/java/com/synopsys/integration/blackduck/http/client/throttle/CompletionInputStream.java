@@ -0,0 +1,62 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.throttle;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Runs onComplete once, as soon as the stream has been read to the end or is
+ * closed, whichever comes first.
+ */
+public class CompletionInputStream extends FilterInputStream {
+    private final Runnable onComplete;
+
+    private boolean completed = false;
+
+    public CompletionInputStream(InputStream inputStream, Runnable onComplete) {
+        super(inputStream);
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        if (read < 0) {
+            complete();
+        }
+        return read;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read < 0) {
+            complete();
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (!completed) {
+            completed = true;
+            onComplete.run();
+        }
+    }
+
+}
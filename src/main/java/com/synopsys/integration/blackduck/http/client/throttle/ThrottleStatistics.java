@@ -0,0 +1,77 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.throttle;
+
+import com.synopsys.integration.util.Stringable;
+
+public class ThrottleStatistics extends Stringable {
+    private final int currentLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int inFlight;
+    private final int waiting;
+    private final long successes;
+    private final long throttles;
+    private final long pausedMillis;
+
+    public ThrottleStatistics(int currentLimit, int minLimit, int maxLimit, int inFlight, int waiting, long successes, long throttles, long pausedMillis) {
+        this.currentLimit = currentLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.inFlight = inFlight;
+        this.waiting = waiting;
+        this.successes = successes;
+        this.throttles = throttles;
+        this.pausedMillis = pausedMillis;
+    }
+
+    /**
+     * @return the number of requests currently allowed in flight at once.
+     */
+    public int getCurrentLimit() {
+        return currentLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return the number of requests waiting for the limit (or a Retry-After pause).
+     */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * @return the number of responses that were HTTP 429 or 503.
+     */
+    public long getThrottles() {
+        return throttles;
+    }
+
+    /**
+     * @return how much longer new requests will be held back because of a Retry-After.
+     */
+    public long getPausedMillis() {
+        return pausedMillis;
+    }
+
+}
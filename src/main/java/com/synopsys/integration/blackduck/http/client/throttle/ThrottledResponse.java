@@ -0,0 +1,146 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.throttle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Holds on to a request's place in the AdaptiveConcurrencyLimit until the
+ * response is closed or its content has been read completely, so a large
+ * body still being streamed counts as a request in flight.
+ */
+public class ThrottledResponse implements Response {
+    private final Response response;
+    private final Runnable onRelease;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    public ThrottledResponse(Response response, Runnable onRelease) {
+        this.response = response;
+        this.onRelease = onRelease;
+    }
+
+    @Override
+    public HttpUriRequest getRequest() {
+        return response.getRequest();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.getStatusCode();
+    }
+
+    @Override
+    public boolean isStatusCodeSuccess() {
+        return response.isStatusCodeSuccess();
+    }
+
+    @Override
+    public boolean isStatusCodeError() {
+        return response.isStatusCodeError();
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return response.getStatusMessage();
+    }
+
+    @Override
+    public InputStream getContent() throws IntegrationException {
+        try {
+            return new CompletionInputStream(response.getContent(), this::release);
+        } catch (IntegrationException | RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getContentString() throws IntegrationException {
+        try {
+            return response.getContentString();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public String getContentString(Charset encoding) throws IntegrationException {
+        try {
+            return response.getContentString(encoding);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public Long getContentLength() {
+        return response.getContentLength();
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return response.getContentEncoding();
+    }
+
+    @Override
+    public String getContentType() {
+        return response.getContentType();
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return response.getHeaders();
+    }
+
+    @Override
+    public String getHeaderValue(String name) {
+        return response.getHeaderValue(name);
+    }
+
+    @Override
+    public CloseableHttpResponse getActualResponse() {
+        return response.getActualResponse();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            response.close();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public long getLastModified() throws IntegrationException {
+        return response.getLastModified();
+    }
+
+    @Override
+    public void throwExceptionForError() throws IntegrationRestException {
+        response.throwExceptionForError();
+    }
+
+    private void release() {
+        if (released.compareAndSet(false, true)) {
+            onRelease.run();
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.throttle;
+
+import java.net.URL;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.HttpClientBuilder;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.RequestCompression;
+import com.synopsys.integration.blackduck.http.client.RetryPolicy;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+import com.synopsys.integration.rest.response.ErrorResponse;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Limits the requests in flight to each host with an AdaptiveConcurrencyLimit,
+ * so that raising parallelism elsewhere backs off when Black Duck starts
+ * answering with HTTP 429 or 503 rather than adding to its load. Throttling
+ * responses are still returned (or thrown) to the caller as they were. A
+ * returned response counts as in flight until it is closed or its content
+ * has been read, so callers must close the responses they are given.
+ */
+public class ThrottlingHttpClient implements BlackDuckHttpClient {
+    public static final long DEFAULT_RETRY_AFTER_MILLIS = 1000;
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final BlackDuckHttpClient blackDuckHttpClient;
+    private final Supplier<AdaptiveConcurrencyLimit> limitSupplier;
+    private final Map<String, AdaptiveConcurrencyLimit> limitsByHost = new ConcurrentHashMap<>();
+
+    public ThrottlingHttpClient(BlackDuckHttpClient blackDuckHttpClient) {
+        this(blackDuckHttpClient, AdaptiveConcurrencyLimit::new);
+    }
+
+    public ThrottlingHttpClient(BlackDuckHttpClient blackDuckHttpClient, Supplier<AdaptiveConcurrencyLimit> limitSupplier) {
+        this.blackDuckHttpClient = blackDuckHttpClient;
+        this.limitSupplier = limitSupplier;
+    }
+
+    /**
+     * @return the current statistics for every host that has been sent a request, keyed by host.
+     */
+    public Map<String, ThrottleStatistics> getThrottleStatistics() {
+        Map<String, ThrottleStatistics> throttleStatistics = new TreeMap<>();
+        limitsByHost.forEach((host, limit) -> throttleStatistics.put(host, limit.getThrottleStatistics()));
+        return throttleStatistics;
+    }
+
+    @Override
+    public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
+        String host = findHost(blackDuckRequest.getUrl());
+        AdaptiveConcurrencyLimit limit = limitsByHost.computeIfAbsent(host, ignored -> limitSupplier.get());
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlackDuckIntegrationException(String.format("Interrupted while waiting to send a request to %s", host), e);
+        }
+
+        Response response;
+        try {
+            response = blackDuckHttpClient.execute(blackDuckRequest);
+        } catch (IntegrationException e) {
+            Optional<IntegrationRestException> restException = findRestException(e);
+            if (restException.isPresent() && isThrottled(restException.get().getHttpStatusCode())) {
+                throttled(host, limit, DEFAULT_RETRY_AFTER_MILLIS);
+            } else {
+                limit.onIgnored();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            limit.onIgnored();
+            throw e;
+        }
+
+        // the request stays in flight until its response is closed or read, so the limit is updated then
+        int statusCode = response.getStatusCode();
+        Runnable onRelease;
+        if (isThrottled(statusCode)) {
+            long retryAfterMillis = parseRetryAfterMillis(response.getHeaderValue(HttpHeaders.RETRY_AFTER), System.currentTimeMillis());
+            onRelease = () -> throttled(host, limit, retryAfterMillis);
+        } else if (statusCode < HttpStatus.SC_BAD_REQUEST) {
+            onRelease = limit::onSuccess;
+        } else {
+            onRelease = limit::onIgnored;
+        }
+        return new ThrottledResponse(response, onRelease);
+    }
+
+    static long parseRetryAfterMillis(String retryAfter, long currentTimeMillis) {
+        if (StringUtils.isBlank(retryAfter)) {
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+
+        String trimmed = retryAfter.trim();
+        if (StringUtils.isNumeric(trimmed)) {
+            try {
+                return Long.parseLong(trimmed) * 1000;
+            } catch (NumberFormatException e) {
+                return DEFAULT_RETRY_AFTER_MILLIS;
+            }
+        }
+
+        try {
+            long retryAtMillis = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, retryAtMillis - currentTimeMillis);
+        } catch (DateTimeParseException e) {
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+    }
+
+    private void throttled(String host, AdaptiveConcurrencyLimit limit, long retryAfterMillis) {
+        if (limit.onThrottled(retryAfterMillis)) {
+            getLogger().debug(String.format("Black Duck is throttling requests to %s - allowing %d requests in flight and pausing for %d ms.", host, limit.getCurrentLimit(), retryAfterMillis));
+        }
+    }
+
+    private boolean isThrottled(int statusCode) {
+        return TOO_MANY_REQUESTS == statusCode || HttpStatus.SC_SERVICE_UNAVAILABLE == statusCode;
+    }
+
+    private Optional<IntegrationRestException> findRestException(IntegrationException e) {
+        if (e instanceof IntegrationRestException) {
+            return Optional.of((IntegrationRestException) e);
+        } else if (e instanceof BlackDuckApiException) {
+            return Optional.ofNullable(((BlackDuckApiException) e).getOriginalIntegrationRestException());
+        }
+        return Optional.empty();
+    }
+
+    private String findHost(HttpUrl httpUrl) {
+        if (null == httpUrl) {
+            return "";
+        }
+        URL url = httpUrl.url();
+        return null != url && null != url.getHost() ? url.getHost() : "";
+    }
+
+    @Override
+    public Response attemptAuthentication() throws IntegrationException {
+        return blackDuckHttpClient.attemptAuthentication();
+    }
+
+    @Override
+    public boolean isAlreadyAuthenticated(HttpUriRequest request) {
+        return blackDuckHttpClient.isAlreadyAuthenticated(request);
+    }
+
+    @Override
+    public Optional<ErrorResponse> extractErrorResponse(String responseContent) {
+        return blackDuckHttpClient.extractErrorResponse(responseContent);
+    }
+
+    @Override
+    public void handleErrorResponse(HttpUriRequest request, Response response) {
+        blackDuckHttpClient.handleErrorResponse(request, response);
+    }
+
+    @Override
+    public void throwExceptionForError(Response response) throws IntegrationException {
+        blackDuckHttpClient.throwExceptionForError(response);
+    }
+
+    @Override
+    public HttpUrl getBlackDuckUrl() {
+        return blackDuckHttpClient.getBlackDuckUrl();
+    }
+
+    @Override
+    public String getUserAgentString() {
+        return blackDuckHttpClient.getUserAgentString();
+    }
+
+    @Override
+    public HttpClientBuilder getHttpClientBuilder() {
+        return blackDuckHttpClient.getHttpClientBuilder();
+    }
+
+    @Override
+    public int getTimeoutInSeconds() {
+        return blackDuckHttpClient.getTimeoutInSeconds();
+    }
+
+    @Override
+    public boolean isAlwaysTrustServerCertificate() {
+        return blackDuckHttpClient.isAlwaysTrustServerCertificate();
+    }
+
+    @Override
+    public ProxyInfo getProxyInfo() {
+        return blackDuckHttpClient.getProxyInfo();
+    }
+
+    @Override
+    public IntLogger getLogger() {
+        return blackDuckHttpClient.getLogger();
+    }
+
+    @Override
+    public Gson getGson() {
+        return blackDuckHttpClient.getGson();
+    }
+
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return blackDuckHttpClient.getRetryPolicy();
+    }
+
+    @Override
+    public RequestCompression getRequestCompression() {
+        return blackDuckHttpClient.getRequestCompression();
+    }
+
+}
@@ -35,63 +35,141 @@ import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.response.Response;
 
 public class BlackDuckJsonTransformer {
+    // shared, so a response transformed as read-only is recognized by every transformer
+    private static final ReadOnlyResponses READ_ONLY_RESPONSES = new ReadOnlyResponses();
+
     private final Gson gson;
     private final ObjectMapper objectMapper;
     private final BlackDuckResponseResolver responseResolver;
     private final IntLogger logger;
+    private final boolean readOnly;
 
     public BlackDuckJsonTransformer(Gson gson, ObjectMapper objectMapper, BlackDuckResponseResolver responseResolver, IntLogger logger) {
+        this(gson, objectMapper, responseResolver, logger, false);
+    }
+
+    /**
+     * When readOnly is true, no responses will retain their json, json element,
+     * or patch, so they can't be used to update Black Duck.
+     */
+    public BlackDuckJsonTransformer(Gson gson, ObjectMapper objectMapper, BlackDuckResponseResolver responseResolver, IntLogger logger, boolean readOnly) {
         this.gson = gson;
         this.objectMapper = objectMapper;
         this.responseResolver = responseResolver;
         this.logger = logger;
+        this.readOnly = readOnly;
     }
 
     public <T extends BlackDuckResponse> T getResponse(Response response, Class<T> clazz) throws IntegrationException {
+        return getResponse(response, clazz, readOnly);
+    }
+
+    public <T extends BlackDuckResponse> T getResponse(Response response, Class<T> clazz, boolean readOnly) throws IntegrationException {
         String json = response.getContentString();
         if (BlackDuckStringResponse.class.equals(clazz)) {
             return (T) new BlackDuckStringResponse(json);
         } else if (BlackDuckResponseResponse.class.equals(clazz)) {
             return (T) new BlackDuckResponseResponse(response);
         }
-        return getResponseAs(json, clazz);
+        return getResponseAs(json, clazz, readOnly);
     }
 
     public <T extends BlackDuckResponse> T getResponseAs(String json, Class<T> clazz) throws BlackDuckIntegrationException {
+        return getResponseAs(json, clazz, readOnly);
+    }
+
+    public <T extends BlackDuckResponse> T getResponseAs(String json, Class<T> clazz, boolean readOnly) throws BlackDuckIntegrationException {
+        JsonElement jsonElement;
         try {
-            JsonElement jsonElement = gson.fromJson(json, JsonElement.class);
-            return getResponseAs(jsonElement, clazz);
+            jsonElement = gson.fromJson(json, JsonElement.class);
         } catch (JsonSyntaxException e) {
             logger.error(String.format("Could not parse the provided json with Gson:%s%s", System.lineSeparator(), json));
             throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
+        if (readOnly || this.readOnly) {
+            return getReadOnlyResponseAs(jsonElement, clazz);
+        }
+        // the original json is already available, so there is no need to serialize the parsed element again
+        return getResponseAs(jsonElement, json, clazz);
     }
 
     public <T extends BlackDuckResponse> T getResponseAs(JsonElement jsonElement, Class<T> clazz) throws BlackDuckIntegrationException {
-        String json = gson.toJson(jsonElement);
+        return getResponseAs(jsonElement, clazz, readOnly);
+    }
+
+    public <T extends BlackDuckResponse> T getResponseAs(JsonElement jsonElement, Class<T> clazz, boolean readOnly) throws BlackDuckIntegrationException {
+        if (readOnly || this.readOnly) {
+            return getReadOnlyResponseAs(jsonElement, clazz);
+        }
+        // the json string is only produced if it is asked for, see getJson(BlackDuckResponse)
+        return getResponseAs(jsonElement, null, clazz);
+    }
+
+    /**
+     * Responses transformed from a json element (every item of a page, for example) don't
+     * serialize it again until their json is needed, so this should be preferred to
+     * BlackDuckResponse.getJson() for those responses.
+     * @return the original json of the response, or null if it was transformed as read-only.
+     */
+    public String getJson(BlackDuckResponse blackDuckResponse) {
+        String json = blackDuckResponse.getJson();
+        JsonElement jsonElement = blackDuckResponse.getJsonElement();
+        if (null == json && null != jsonElement) {
+            json = gson.toJson(jsonElement);
+            blackDuckResponse.setJson(json);
+        }
+        return json;
+    }
+
+    /**
+     * @return true if the response was transformed without retaining its json, in which case it can't be used to update Black Duck.
+     */
+    public boolean isReadOnly(BlackDuckResponse blackDuckResponse) {
+        return READ_ONLY_RESPONSES.contains(blackDuckResponse);
+    }
+
+    private <T extends BlackDuckResponse> T getReadOnlyResponseAs(JsonElement jsonElement, Class<T> clazz) throws BlackDuckIntegrationException {
+        try {
+            T blackDuckResponse = responseResolver.resolve(jsonElement, clazz);
+
+            blackDuckResponse.setGson(gson);
+            READ_ONLY_RESPONSES.add(blackDuckResponse);
+
+            return blackDuckResponse;
+        } catch (JsonSyntaxException e) {
+            logger.error(String.format("Could not parse the provided jsonElement with Gson:%s%s", System.lineSeparator(), gson.toJson(jsonElement)));
+            throw new BlackDuckIntegrationException(e.getMessage(), e);
+        }
+    }
+
+    private <T extends BlackDuckResponse> T getResponseAs(JsonElement jsonElement, String json, Class<T> clazz) throws BlackDuckIntegrationException {
         try {
             T blackDuckResponse = responseResolver.resolve(jsonElement, clazz);
 
             blackDuckResponse.setGson(gson);
             blackDuckResponse.setJsonElement(jsonElement);
             blackDuckResponse.setJson(json);
-            setPatch(blackDuckResponse);
+            // the patch is only needed when the response is updated, so it is not created until producePatchedJson is called
 
             return blackDuckResponse;
         } catch (JsonSyntaxException e) {
-            logger.error(String.format("Could not parse the provided jsonElement with Gson:%s%s", System.lineSeparator(), json));
+            logger.error(String.format("Could not parse the provided jsonElement with Gson:%s%s", System.lineSeparator(), null != json ? json : gson.toJson(jsonElement)));
             throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getResponses(String json, Class<T> clazz) throws IntegrationException {
+        return getResponses(json, clazz, readOnly);
+    }
+
+    public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getResponses(String json, Class<T> clazz, boolean readOnly) throws IntegrationException {
         try {
             JsonObject jsonObject = gson.fromJson(json, JsonObject.class);
             int totalCount = jsonObject.get("totalCount").getAsInt();
             JsonArray items = jsonObject.get("items").getAsJsonArray();
             List<T> itemList = new ArrayList<>();
             for (JsonElement jsonElement : items) {
-                itemList.add(getResponseAs(jsonElement, clazz));
+                itemList.add(getResponseAs(jsonElement, clazz, readOnly));
             }
 
             return new BlackDuckPageResponse<>(totalCount, itemList);
@@ -102,10 +180,17 @@ public class BlackDuckJsonTransformer {
     }
 
     public String producePatchedJson(BlackDuckResponse blackDuckResponse) {
+        if (isReadOnly(blackDuckResponse)) {
+            throw new IllegalArgumentException("The response was retrieved as read-only, so it can't be used to produce json for an update.");
+        }
         String lossyJson = gson.toJson(blackDuckResponse);
         try {
             JsonNode target = objectMapper.readTree(lossyJson);
             JsonNode patch = blackDuckResponse.getPatch();
+            if (null == patch) {
+                patch = createPatch(blackDuckResponse);
+                blackDuckResponse.setPatch(patch);
+            }
 
             List<JsonNode> listOfPatches = transformPatchToListOfPatches(patch);
             for (JsonNode singleChangePatch : listOfPatches) {
@@ -141,17 +226,28 @@ public class BlackDuckJsonTransformer {
         return listOfPatches;
     }
 
-    private void setPatch(BlackDuckResponse blackDuckResponse) {
-        String lossyJson = gson.toJson(blackDuckResponse);
-
-        try {
-            JsonNode source = objectMapper.readTree(lossyJson);
-            JsonNode target = objectMapper.readTree(blackDuckResponse.getJson());
-            JsonNode patch = JsonDiff.asJson(source, target);
-            blackDuckResponse.setPatch(patch);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /*
+     * The patch captures everything in the original json that would be lost by
+     * Gson serializing the response object. It is created by resolving the
+     * original json again, so the current state of the (possibly modified)
+     * response object doesn't matter.
+     */
+    private JsonNode createPatch(BlackDuckResponse blackDuckResponse) throws IOException {
+        JsonElement jsonElement = blackDuckResponse.getJsonElement();
+        String json = getJson(blackDuckResponse);
+        if (null == json) {
+            return JsonNodeFactory.instance.arrayNode();
+        }
+        if (null == jsonElement) {
+            jsonElement = gson.fromJson(json, JsonElement.class);
         }
+
+        BlackDuckResponse originalResponse = responseResolver.resolve(jsonElement, blackDuckResponse.getClass());
+        String lossyJson = gson.toJson(originalResponse);
+
+        JsonNode source = objectMapper.readTree(lossyJson);
+        JsonNode target = objectMapper.readTree(json);
+        return JsonDiff.asJson(source, target);
     }
 
 }
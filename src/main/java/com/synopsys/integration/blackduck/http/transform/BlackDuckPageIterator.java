@@ -0,0 +1,86 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.transform;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
+import com.synopsys.integration.blackduck.exception.BlackDuckPagingException;
+import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Walks all the pages of a multiple response request, only retrieving the
+ * next page once the items of the current page have been consumed. Only the
+ * current page is referenced, so items that have already been returned can be
+ * garbage collected.
+ */
+public class BlackDuckPageIterator<T extends BlackDuckResponse> implements Iterator<T> {
+    private final BlackDuckResponsesTransformer blackDuckResponsesTransformer;
+    private final BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple;
+    private final int limit;
+
+    private int offset;
+    private int totalCount = -1;
+    private boolean exhausted = false;
+    private Iterator<T> currentPage = Collections.emptyIterator();
+
+    public BlackDuckPageIterator(BlackDuckResponsesTransformer blackDuckResponsesTransformer, BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        this.blackDuckResponsesTransformer = blackDuckResponsesTransformer;
+        this.requestMultiple = requestMultiple;
+        this.limit = blackDuckResponsesTransformer.getLimit(requestMultiple);
+        this.offset = blackDuckResponsesTransformer.getOffset(requestMultiple);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentPage.hasNext() && hasMorePages()) {
+            retrieveNextPage();
+        }
+        return currentPage.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.next();
+    }
+
+    /**
+     * @return the totalCount reported by Black Duck, or -1 if no page has been retrieved yet.
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    private boolean hasMorePages() {
+        return !exhausted && (totalCount < 0 || offset < totalCount);
+    }
+
+    private void retrieveNextPage() {
+        try {
+            BlackDuckPageResponse<T> pageResponse = blackDuckResponsesTransformer.getPageOfResponses(requestMultiple, offset);
+            totalCount = pageResponse.getTotalCount();
+            if (pageResponse.getItems().isEmpty()) {
+                // the total can shrink while we are paging - an empty page means there is nothing left to retrieve
+                exhausted = true;
+            }
+            currentPage = pageResponse.getItems().iterator();
+            offset += limit;
+        } catch (IntegrationException e) {
+            throw new BlackDuckPagingException(e);
+        }
+    }
+
+}
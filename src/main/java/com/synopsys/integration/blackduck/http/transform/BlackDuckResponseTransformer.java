@@ -30,7 +30,7 @@ public class BlackDuckResponseTransformer {
     public <T extends BlackDuckResponse> T getResponse(BlackDuckRequest<T, UrlSingleResponse<T>> requestSingle) throws IntegrationException {
         try (Response response = blackDuckHttpClient.execute(requestSingle)) {
             blackDuckHttpClient.throwExceptionForError(response);
-            return blackDuckJsonTransformer.getResponse(response, requestSingle.getResponseClass());
+            return blackDuckJsonTransformer.getResponse(response, requestSingle.getResponseClass(), requestSingle.isReadOnly());
         } catch (IOException e) {
             throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
@@ -8,12 +8,24 @@
 package com.synopsys.integration.blackduck.http.transform;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.math.NumberUtils;
 import org.jetbrains.annotations.NotNull;
@@ -26,17 +38,35 @@ import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationExceptio
 import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.RetryPolicy;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.util.NoThreadExecutorService;
 
 public class BlackDuckResponsesTransformer {
+    public static final int SERIAL_PAGES_IN_FLIGHT = 1;
+
     private final BlackDuckHttpClient blackDuckHttpClient;
     private final BlackDuckJsonTransformer blackDuckJsonTransformer;
+    private final ExecutorService executorService;
+    private final int pagesInFlight;
 
     public BlackDuckResponsesTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer) {
+        this(blackDuckHttpClient, blackDuckJsonTransformer, new NoThreadExecutorService(), SERIAL_PAGES_IN_FLIGHT);
+    }
+
+    /**
+     * Once the first page has reported the totalCount, up to pagesInFlight
+     * further pages will be requested concurrently on the executorService.
+     * Pages are still merged in offset order. A pagesInFlight of 1 (or less)
+     * keeps the original one-page-at-a-time behavior.
+     */
+    public BlackDuckResponsesTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer, ExecutorService executorService, int pagesInFlight) {
         this.blackDuckHttpClient = blackDuckHttpClient;
         this.blackDuckJsonTransformer = blackDuckJsonTransformer;
+        this.executorService = executorService;
+        this.pagesInFlight = pagesInFlight;
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getSomeMatchingResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, Predicate<T> predicate, int totalLimit) throws IntegrationException {
@@ -55,6 +85,68 @@ public class BlackDuckResponsesTransformer {
         return getInternalMatchingResponse(requestMultiple, getLimit(requestMultiple), alwaysTrue());
     }
 
+    /**
+     * Retrieves a single page at the given offset, using the limit of the provided request.
+     * If the connection breaks while the body of the page is being read, only
+     * this page is requested again (as allowed by the client's RetryPolicy), so
+     * the pages already retrieved are kept. Failures of the request itself are
+     * left to the client, which has already retried them.
+     */
+    public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getPageOfResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, int offset) throws IntegrationException {
+        BlackDuckRequest<T, UrlMultipleResponses<T>> pageRequest = nextPage(requestMultiple, offset);
+        RetryPolicy retryPolicy = Optional.ofNullable(blackDuckHttpClient.getRetryPolicy()).orElse(RetryPolicy.NONE);
+        int attempt = 1;
+        while (true) {
+            try (Response response = blackDuckHttpClient.execute(pageRequest)) {
+                blackDuckHttpClient.throwExceptionForError(response);
+                String jsonResponse = readPageBody(response, retryPolicy, attempt, pageRequest, offset);
+                if (null != jsonResponse) {
+                    return blackDuckJsonTransformer.getResponses(jsonResponse, pageRequest.getResponseClass(), pageRequest.isReadOnly());
+                }
+            } catch (IOException e) {
+                throw new BlackDuckIntegrationException(e);
+            }
+
+            try {
+                retryPolicy.waitBeforeRetry(attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BlackDuckIntegrationException(String.format("Interrupted while waiting to retry the page at offset %d of %s", offset, pageRequest.getUrl().string()), e);
+            }
+            attempt++;
+        }
+    }
+
+    /**
+     * Pages are only retrieved as the iterator is advanced. A failure to retrieve a page will be thrown as a BlackDuckPagingException.
+     */
+    public <T extends BlackDuckResponse> BlackDuckPageIterator<T> getResponsesIterator(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        return new BlackDuckPageIterator<>(this, requestMultiple);
+    }
+
+    /**
+     * Pages are only retrieved as the stream is consumed. A failure to retrieve a page will be thrown as a BlackDuckPagingException.
+     */
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        Iterator<T> responsesIterator = getResponsesIterator(requestMultiple);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(responsesIterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * @return the body of the page, or null if reading it failed in a way that allows the page to be requested again.
+     */
+    private <T extends BlackDuckResponse> String readPageBody(Response response, RetryPolicy retryPolicy, int attempt, BlackDuckRequest<T, UrlMultipleResponses<T>> pageRequest, int offset) throws IntegrationException {
+        try {
+            return response.getContentString();
+        } catch (IntegrationException e) {
+            if (!retryPolicy.canRetry(attempt, pageRequest.getRequest().getMethod()) || !retryPolicy.isRetryableException(e)) {
+                throw e;
+            }
+            blackDuckHttpClient.getLogger().debug(String.format("Could not read the page at offset %d of %s (%s) - it will be requested again.", offset, pageRequest.getUrl().string(), e.getMessage()));
+            return null;
+        }
+    }
+
     private <T extends BlackDuckResponse> Predicate<T> alwaysTrue() {
         return (blackDuckResponse) -> true;
     }
@@ -65,34 +157,82 @@ public class BlackDuckResponsesTransformer {
 
         int limit = getLimit(requestMultiple);
         int offset = getOffset(requestMultiple);
-        try (Response initialResponse = blackDuckHttpClient.execute(requestMultiple)) {
-            blackDuckHttpClient.throwExceptionForError(initialResponse);
-            String initialJsonResponse = initialResponse.getContentString();
-            BlackDuckPageResponse<T> blackDuckPageResponse = blackDuckJsonTransformer.getResponses(initialJsonResponse, requestMultiple.getResponseClass());
-
-            allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
+        BlackDuckPageResponse<T> blackDuckPageResponse = getPageOfResponses(requestMultiple, offset);
+        allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
 
-            totalCount = blackDuckPageResponse.getTotalCount();
-            int totalItemsToRetrieve = Math.min(totalCount, maxToReturn);
+        totalCount = blackDuckPageResponse.getTotalCount();
+        int totalItemsToRetrieve = Math.min(totalCount, maxToReturn);
 
+        if (pagesInFlight > SERIAL_PAGES_IN_FLIGHT) {
+            retrieveRemainingPagesConcurrently(requestMultiple, predicate, allResponses, totalItemsToRetrieve, totalCount, limit, offset);
+        } else {
             while (allResponses.size() < totalItemsToRetrieve && offset < totalCount) {
                 offset = offset + limit;
-                requestMultiple = nextPage(requestMultiple, offset);
-                try (Response response = blackDuckHttpClient.execute(requestMultiple)) {
-                    blackDuckHttpClient.throwExceptionForError(response);
-                    String jsonResponse = response.getContentString();
-                    blackDuckPageResponse = blackDuckJsonTransformer.getResponses(jsonResponse, requestMultiple.getResponseClass());
-                    allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
-                } catch (IOException e) {
-                    throw new BlackDuckIntegrationException(e);
+                allResponses.addAll(retrieveMatchingPage(requestMultiple, offset, predicate));
+            }
+        }
+
+        allResponses = onlyReturnMaxRequested(maxToReturn, allResponses);
+        return new BlackDuckPageResponse<>(totalCount, allResponses);
+    }
+
+    private <T extends BlackDuckResponse> void retrieveRemainingPagesConcurrently(
+        BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple,
+        Predicate<T> predicate,
+        List<T> allResponses,
+        int totalItemsToRetrieve,
+        int totalCount,
+        int limit,
+        int offset
+    ) throws IntegrationException {
+        Deque<FutureTask<List<T>>> pagesInProgress = new ArrayDeque<>();
+        int nextOffset = offset + limit;
+        try {
+            while (pagesInProgress.size() < pagesInFlight && nextOffset < totalCount) {
+                pagesInProgress.add(submitPage(requestMultiple, nextOffset, predicate));
+                nextOffset += limit;
+            }
+
+            // the futures are consumed in the order they were submitted, so the items stay in offset order
+            while (!pagesInProgress.isEmpty() && allResponses.size() < totalItemsToRetrieve) {
+                FutureTask<List<T>> nextPage = pagesInProgress.removeFirst();
+                // When this is itself running on the executor (a retrieval that pages through its own results), the executor may have no thread left
+                // for the page. FutureTask.run does nothing once the page has been started, so the page is only fetched here if it is still queued.
+                nextPage.run();
+                allResponses.addAll(nextPage.get());
+                if (allResponses.size() < totalItemsToRetrieve && nextOffset < totalCount) {
+                    pagesInProgress.add(submitPage(requestMultiple, nextOffset, predicate));
+                    nextOffset += limit;
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlackDuckIntegrationException(String.format("Interrupted while retrieving pages from %s", requestMultiple.getUrl().string()), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IntegrationException) {
+                throw (IntegrationException) e.getCause();
+            }
+            throw new BlackDuckIntegrationException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (FutureTask<List<T>> unneededPage : pagesInProgress) {
+                unneededPage.cancel(true);
+            }
+        }
+    }
 
-            allResponses = onlyReturnMaxRequested(maxToReturn, allResponses);
-            return new BlackDuckPageResponse<>(totalCount, allResponses);
-        } catch (IOException e) {
-            throw new BlackDuckIntegrationException(e.getMessage(), e);
+    private <T extends BlackDuckResponse> FutureTask<List<T>> submitPage(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, int offset, Predicate<T> predicate) {
+        FutureTask<List<T>> page = new FutureTask<>(() -> retrieveMatchingPage(requestMultiple, offset, predicate));
+        try {
+            executorService.execute(page);
+        } catch (RejectedExecutionException e) {
+            // the page stays unstarted and will be fetched by the calling thread
         }
+        return page;
+    }
+
+    private <T extends BlackDuckResponse> List<T> retrieveMatchingPage(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, int offset, Predicate<T> predicate) throws IntegrationException {
+        BlackDuckPageResponse<T> blackDuckPageResponse = getPageOfResponses(requestMultiple, offset);
+        return this.matchPredicate(blackDuckPageResponse, predicate);
     }
 
     private <T extends BlackDuckResponse> BlackDuckRequest<T, UrlMultipleResponses<T>> nextPage(BlackDuckRequest<T, UrlMultipleResponses<T>> blackDuckRequest, int offset) {
@@ -123,6 +263,10 @@ public class BlackDuckResponsesTransformer {
         return retrieveValue(blackDuckRequest.getRequest().getQueryParameters()::get, BlackDuckRequestBuilder.OFFSET_PARAMETER, BlackDuckRequestBuilder.DEFAULT_OFFSET);
     }
 
+    public int getPagesInFlight() {
+        return pagesInFlight;
+    }
+
     private int retrieveValue(Function<String, Set<String>> valueCollection, String key, int defaultValue) {
         return NumberUtils.toInt(valueCollection.apply(key).stream().findFirst().orElse(Integer.toString(defaultValue)));
     }
@@ -0,0 +1,70 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.transform;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+
+/**
+ * Remembers which responses were transformed as read-only. BlackDuckResponse
+ * has no flag of its own for this, so the responses are tracked by identity,
+ * and only weakly, so a response that is no longer used can still be
+ * collected.
+ */
+class ReadOnlyResponses {
+    private final Set<ResponseReference> responses = new HashSet<>();
+    private final ReferenceQueue<BlackDuckResponse> collected = new ReferenceQueue<>();
+
+    public synchronized void add(BlackDuckResponse blackDuckResponse) {
+        removeCollected();
+        responses.add(new ResponseReference(blackDuckResponse, collected));
+    }
+
+    public synchronized boolean contains(BlackDuckResponse blackDuckResponse) {
+        removeCollected();
+        return responses.contains(new ResponseReference(blackDuckResponse, null));
+    }
+
+    private void removeCollected() {
+        Object reference;
+        while (null != (reference = collected.poll())) {
+            responses.remove(reference);
+        }
+    }
+
+    private static class ResponseReference extends WeakReference<BlackDuckResponse> {
+        private final int hashCode;
+
+        public ResponseReference(BlackDuckResponse blackDuckResponse, ReferenceQueue<BlackDuckResponse> queue) {
+            super(blackDuckResponse, queue);
+            hashCode = System.identityHashCode(blackDuckResponse);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResponseReference)) {
+                return false;
+            }
+            BlackDuckResponse blackDuckResponse = get();
+            return null != blackDuckResponse && blackDuckResponse == ((ResponseReference) obj).get();
+        }
+    }
+
+}
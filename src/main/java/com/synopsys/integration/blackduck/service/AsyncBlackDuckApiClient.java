@@ -0,0 +1,139 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckComponent;
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.BlackDuckView;
+import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.blackduck.service.request.BlackDuckResponseRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * The same calls as BlackDuckApiClient, but each one runs on the provided
+ * executor and returns a CompletableFuture, so BOM, policy, vulnerability (and
+ * other) retrievals can be composed rather than hand-rolled on executors.
+ *
+ * No matter how many calls are made, at most maxConcurrentRequests of them
+ * will be talking to Black Duck at once. The rest wait in a queue rather than
+ * on one of the executor's threads. Clients built on the same
+ * ConcurrencyLimitedExecutorService share its limit, as every client from
+ * BlackDuckServicesFactory.createAsyncBlackDuckApiClient() does. A failed call
+ * completes its future exceptionally with a CompletionException wrapping the
+ * IntegrationException.
+ */
+public class AsyncBlackDuckApiClient {
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+
+    private final BlackDuckApiClient blackDuckApiClient;
+    private final ConcurrencyLimitedExecutorService requestExecutorService;
+
+    public AsyncBlackDuckApiClient(BlackDuckApiClient blackDuckApiClient, Executor executor) {
+        this(blackDuckApiClient, executor, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    public AsyncBlackDuckApiClient(BlackDuckApiClient blackDuckApiClient, Executor executor, int maxConcurrentRequests) {
+        this(blackDuckApiClient, new ConcurrencyLimitedExecutorService(executor, maxConcurrentRequests));
+    }
+
+    /**
+     * The limit of the requestExecutorService applies to every client (and
+     * any other work) sharing it.
+     */
+    public AsyncBlackDuckApiClient(BlackDuckApiClient blackDuckApiClient, ConcurrencyLimitedExecutorService requestExecutorService) {
+        this.blackDuckApiClient = blackDuckApiClient;
+        this.requestExecutorService = requestExecutorService;
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<List<T>> getAllResponses(UrlMultipleResponses<T> urlMultipleResponses) {
+        return supply(() -> blackDuckApiClient.getAllResponses(urlMultipleResponses));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<List<T>> getAllResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        return supply(() -> blackDuckApiClient.getAllResponses(requestMultiple));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<T> getResponse(HttpUrl url, Class<T> responseClass) {
+        return supply(() -> blackDuckApiClient.getResponse(url, responseClass));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<T> getResponse(UrlSingleResponse<T> urlSingleResponse) {
+        return supply(() -> blackDuckApiClient.getResponse(urlSingleResponse));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<T> getResponse(BlackDuckRequest<T, UrlSingleResponse<T>> requestSingle) {
+        return supply(() -> blackDuckApiClient.getResponse(requestSingle));
+    }
+
+    public CompletableFuture<HttpUrl> post(HttpUrl url, BlackDuckComponent blackDuckComponent) {
+        return supply(() -> blackDuckApiClient.post(url, blackDuckComponent));
+    }
+
+    public CompletableFuture<Void> put(BlackDuckView blackDuckView) {
+        return supply(() -> {
+            blackDuckApiClient.put(blackDuckView);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> delete(BlackDuckView blackDuckView) {
+        return supply(() -> {
+            blackDuckApiClient.delete(blackDuckView);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> delete(HttpUrl url) {
+        return supply(() -> {
+            blackDuckApiClient.delete(url);
+            return null;
+        });
+    }
+
+    /**
+     * As with BlackDuckApiClient.execute, the caller is responsible for closing the Response.
+     */
+    public CompletableFuture<Response> execute(BlackDuckResponseRequest request) {
+        return supply(() -> blackDuckApiClient.execute(request));
+    }
+
+    public BlackDuckApiClient getBlackDuckApiClient() {
+        return blackDuckApiClient;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return requestExecutorService.getMaxConcurrency();
+    }
+
+    // calls over the limit are queued by the requestExecutorService, so none of them blocks a thread waiting for its turn
+    private <R> CompletableFuture<R> supply(BlackDuckCall<R> blackDuckCall) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return blackDuckCall.call();
+            } catch (IntegrationException e) {
+                throw new CompletionException(e);
+            }
+        }, requestExecutorService);
+    }
+
+    @FunctionalInterface
+    private interface BlackDuckCall<R> {
+        R call() throws IntegrationException;
+
+    }
+
+}
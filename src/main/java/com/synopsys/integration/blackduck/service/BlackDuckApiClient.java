@@ -8,9 +8,11 @@
 package com.synopsys.integration.blackduck.service;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.apache.http.HttpHeaders;
 
@@ -21,6 +23,7 @@ import com.synopsys.integration.blackduck.api.core.BlackDuckView;
 import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
 import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
 import com.synopsys.integration.blackduck.api.generated.discovery.BlackDuckMediaTypeDiscovery;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
@@ -66,6 +69,28 @@ public class BlackDuckApiClient {
         return blackDuckResponsesTransformer.getAllResponses(requestMultiple).getItems();
     }
 
+    /**
+     * Unlike getAllResponses, pages are only retrieved as the stream is consumed, so only the current page is held in memory.
+     * A failure to retrieve a page is thrown as a BlackDuckPagingException.
+     */
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(UrlMultipleResponses<T> urlMultipleResponses) {
+        BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple = new BlackDuckRequest<>(new BlackDuckRequestBuilder().commonGet(), urlMultipleResponses);
+        return streamAllResponses(requestMultiple);
+    }
+
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        return blackDuckResponsesTransformer.streamAllResponses(requestMultiple);
+    }
+
+    public <T extends BlackDuckResponse> Iterator<T> getResponsesIterator(UrlMultipleResponses<T> urlMultipleResponses) {
+        BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple = new BlackDuckRequest<>(new BlackDuckRequestBuilder().commonGet(), urlMultipleResponses);
+        return getResponsesIterator(requestMultiple);
+    }
+
+    public <T extends BlackDuckResponse> Iterator<T> getResponsesIterator(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        return blackDuckResponsesTransformer.getResponsesIterator(requestMultiple);
+    }
+
     public <T extends BlackDuckResponse> List<T> getSomeMatchingResponses(UrlMultipleResponses<T> urlMultipleResponses, Predicate<T> predicate, int totalLimit) throws IntegrationException {
         BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder().commonGet();
         BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple = new BlackDuckRequest<>(blackDuckRequestBuilder, urlMultipleResponses);
@@ -134,6 +159,9 @@ public class BlackDuckApiClient {
     // handling generic put
     // ------------------------------------------------
     public void put(BlackDuckView blackDuckView) throws IntegrationException {
+        if (blackDuckJsonTransformer.isReadOnly(blackDuckView)) {
+            throw new BlackDuckIntegrationException(String.format("The view (%s) was retrieved as read-only and can not be used to update Black Duck.", blackDuckView.getHref().string()));
+        }
         HttpUrl url = blackDuckView.getHref();
         String mediaType = blackDuckMediaTypeDiscovery.determineMediaType(url);
         
@@ -163,7 +191,17 @@ public class BlackDuckApiClient {
     // ------------------------------------------------
     public Response execute(BlackDuckResponseRequest request) throws IntegrationException {
         Response response = blackDuckHttpClient.execute(request);
-        blackDuckHttpClient.throwExceptionForError(response);
+        try {
+            blackDuckHttpClient.throwExceptionForError(response);
+        } catch (IntegrationException | RuntimeException e) {
+            // the caller never sees the response, so it has to be closed here
+            try {
+                response.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
         return response;
     }
     
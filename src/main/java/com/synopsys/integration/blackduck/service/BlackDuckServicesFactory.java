@@ -9,6 +9,7 @@ package com.synopsys.integration.blackduck.service;
 
 import java.io.File;
 import java.time.OffsetDateTime;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
@@ -22,9 +23,11 @@ import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
 import com.synopsys.integration.blackduck.bdio2.Bdio2FileUploadService;
 import com.synopsys.integration.blackduck.bdio2.Bdio2RetryAwareStreamUploader;
 import com.synopsys.integration.blackduck.bdio2.Bdio2StreamUploader;
+import com.synopsys.integration.blackduck.bdio2.Bdio2UploadJob;
 import com.synopsys.integration.blackduck.bdio2.util.Bdio2ContentExtractor;
 import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
 import com.synopsys.integration.blackduck.codelocation.CodeLocationWaiter;
+import com.synopsys.integration.blackduck.codelocation.SharedCodeLocationWaiter;
 import com.synopsys.integration.blackduck.codelocation.bdio2legacy.Bdio2UploadService;
 import com.synopsys.integration.blackduck.codelocation.bdio2legacy.UploadBdio2BatchRunner;
 import com.synopsys.integration.blackduck.codelocation.bdiolegacy.BdioUploadService;
@@ -84,6 +87,7 @@ public class BlackDuckServicesFactory {
     private final BlackDuckResponsesTransformer blackDuckResponsesTransformer;
     private final ApiDiscovery apiDiscovery;
     private final BlackDuckApiClient blackDuckApiClient;
+    private final ConcurrencyLimitedExecutorService asyncRequestExecutorService;
 
     public static Gson createDefaultGson() {
         return createDefaultGsonBuilder().create();
@@ -107,6 +111,28 @@ public class BlackDuckServicesFactory {
     public BlackDuckServicesFactory(
         IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService, IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, Gson gson,
         ObjectMapper objectMapper
+    ) {
+        this(intEnvironmentVariables, executorService, logger, blackDuckHttpClient, gson, objectMapper, BlackDuckResponsesTransformer.SERIAL_PAGES_IN_FLIGHT);
+    }
+
+    /**
+     * With a pagesInFlight greater than 1, multi-page requests will fetch the
+     * remaining pages concurrently on the provided executorService.
+     */
+    public BlackDuckServicesFactory(
+        IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService, IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, Gson gson,
+        ObjectMapper objectMapper, int pagesInFlight
+    ) {
+        this(intEnvironmentVariables, executorService, logger, blackDuckHttpClient, gson, objectMapper, pagesInFlight, false);
+    }
+
+    /**
+     * With readOnly true, no retrieved view will retain its json, so the views
+     * use much less memory but can not be used to update Black Duck.
+     */
+    public BlackDuckServicesFactory(
+        IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService, IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, Gson gson,
+        ObjectMapper objectMapper, int pagesInFlight, boolean readOnly
     ) {
         this.intEnvironmentVariables = intEnvironmentVariables;
         this.executorService = executorService;
@@ -116,32 +142,41 @@ public class BlackDuckServicesFactory {
         this.objectMapper = objectMapper;
 
         blackDuckResponseResolver = new BlackDuckResponseResolver(gson);
-        blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, objectMapper, blackDuckResponseResolver, logger);
+        blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, objectMapper, blackDuckResponseResolver, logger, readOnly);
         blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
-        blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+        blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer, executorService, pagesInFlight);
         apiDiscovery = new ApiDiscovery(blackDuckHttpClient.getBlackDuckUrl());
 
         blackDuckApiClient = new BlackDuckApiClient(blackDuckHttpClient, blackDuckJsonTransformer, blackDuckResponseTransformer, blackDuckResponsesTransformer);
+        asyncRequestExecutorService = createAsyncRequestExecutorService(executorService);
     }
 
     public BdioUploadService createBdioUploadService() {
-        return new BdioUploadService(blackDuckApiClient, apiDiscovery, logger, new UploadBatchRunner(logger, blackDuckApiClient, apiDiscovery, executorService),
+        return new BdioUploadService(blackDuckApiClient, apiDiscovery, logger, new UploadBatchRunner(logger, blackDuckApiClient, apiDiscovery, createTargetExecutorService(),
+            blackDuckHttpClient.getRequestCompression()),
             createCodeLocationCreationService()
         );
     }
 
     public Bdio2UploadService createBdio2UploadService() {
-        return new Bdio2UploadService(blackDuckApiClient, apiDiscovery, logger, new UploadBdio2BatchRunner(logger, blackDuckApiClient, apiDiscovery, executorService),
+        return new Bdio2UploadService(blackDuckApiClient, apiDiscovery, logger, new UploadBdio2BatchRunner(logger, blackDuckApiClient, apiDiscovery, createTargetExecutorService()),
             createCodeLocationCreationService()
         );
     }
 
     public Bdio2FileUploadService createBdio2FileUploadService() {
+        return createBdio2FileUploadService(Bdio2UploadJob.SERIAL_APPENDS);
+    }
+
+    /**
+     * @param appendConcurrency how many BDIO entries of a single upload may be appended at the same time.
+     */
+    public Bdio2FileUploadService createBdio2FileUploadService(int appendConcurrency) {
         Bdio2StreamUploader bdio2Uploader = new Bdio2StreamUploader(blackDuckApiClient, apiDiscovery, logger, ApiDiscovery.INTELLIGENT_PERSISTENCE_SCANS_PATH,
-            IntelligentPersistenceService.CONTENT_TYPE
+            IntelligentPersistenceService.CONTENT_TYPE, blackDuckHttpClient.getRequestCompression()
         );
         Bdio2RetryAwareStreamUploader bdio2RetryAwareStreamUploader = new Bdio2RetryAwareStreamUploader(bdio2Uploader);
-        return new Bdio2FileUploadService(blackDuckApiClient, apiDiscovery, logger, new Bdio2ContentExtractor(), bdio2RetryAwareStreamUploader);
+        return new Bdio2FileUploadService(blackDuckApiClient, apiDiscovery, logger, new Bdio2ContentExtractor(), bdio2RetryAwareStreamUploader, appendConcurrency, executorService);
     }
 
     public SignatureScannerService createSignatureScannerService(File signatureScannerInstallDirectory) {
@@ -150,7 +185,7 @@ public class BlackDuckServicesFactory {
             blackDuckHttpClient,
             createBlackDuckRegistrationService(),
             intEnvironmentVariables,
-            executorService,
+            createTargetExecutorService(),
             signatureScannerInstallDirectory
         );
         return createSignatureScannerService(scanBatchRunner);
@@ -161,7 +196,7 @@ public class BlackDuckServicesFactory {
     }
 
     public BinaryScanUploadService createBinaryScanUploadService() {
-        return new BinaryScanUploadService(blackDuckApiClient, apiDiscovery, logger, new BinaryScanBatchRunner(logger, blackDuckApiClient, apiDiscovery, executorService),
+        return new BinaryScanUploadService(blackDuckApiClient, apiDiscovery, logger, new BinaryScanBatchRunner(logger, blackDuckApiClient, apiDiscovery, createTargetExecutorService()),
             createCodeLocationCreationService()
         );
     }
@@ -175,6 +210,24 @@ public class BlackDuckServicesFactory {
         return new CodeLocationCreationService(blackDuckApiClient, apiDiscovery, logger, codeLocationWaiter, notificationService, userService);
     }
 
+    /**
+     * Every CodeLocationCreationService created with the same
+     * SharedCodeLocationWaiter will wait for its code locations through that
+     * waiter's single poller.
+     */
+    public CodeLocationCreationService createCodeLocationCreationService(SharedCodeLocationWaiter sharedCodeLocationWaiter) {
+        ProjectService projectService = createProjectService();
+        NotificationService notificationService = createNotificationService();
+        UserService userService = createUserService();
+        CodeLocationWaiter codeLocationWaiter = new CodeLocationWaiter(logger, blackDuckApiClient, projectService, notificationService);
+
+        return new CodeLocationCreationService(blackDuckApiClient, apiDiscovery, logger, codeLocationWaiter, notificationService, userService, sharedCodeLocationWaiter);
+    }
+
+    public SharedCodeLocationWaiter createSharedCodeLocationWaiter() {
+        return new SharedCodeLocationWaiter(logger, blackDuckApiClient, createProjectService(), createNotificationService(), createUserService());
+    }
+
     public CodeLocationService createCodeLocationService() {
         return new CodeLocationService(blackDuckApiClient, apiDiscovery, logger);
     }
@@ -209,7 +262,7 @@ public class BlackDuckServicesFactory {
     }
 
     public ProjectBomService createProjectBomService() {
-        return new ProjectBomService(blackDuckApiClient, apiDiscovery, logger, createComponentService());
+        return new ProjectBomService(blackDuckApiClient, apiDiscovery, logger, createComponentService(), createParallelRetriever());
     }
 
     public ReportBomService createReportBomService() {
@@ -217,8 +270,16 @@ public class BlackDuckServicesFactory {
     }
 
     public ProjectUsersService createProjectUsersService() {
-        UserGroupService userGroupService = createUserGroupService();
-        return new ProjectUsersService(blackDuckApiClient, apiDiscovery, logger, userGroupService);
+        return createProjectUsersService(createBlackDuckViewResolver());
+    }
+
+    /**
+     * Pass the same resolver from createBlackDuckViewResolver(true) to several
+     * services to share the users, groups, and projects they resolve.
+     */
+    public ProjectUsersService createProjectUsersService(BlackDuckViewResolver blackDuckViewResolver) {
+        UserGroupService userGroupService = createUserGroupService(blackDuckViewResolver);
+        return new ProjectUsersService(blackDuckApiClient, apiDiscovery, logger, userGroupService, blackDuckViewResolver);
     }
 
     public BlackDuckScanReadinessService createScanReadinessService() {
@@ -238,7 +299,15 @@ public class BlackDuckServicesFactory {
     }
 
     public UserGroupService createUserGroupService() {
-        return new UserGroupService(blackDuckApiClient, apiDiscovery, logger);
+        return createUserGroupService(createBlackDuckViewResolver());
+    }
+
+    /**
+     * Pass the same resolver from createBlackDuckViewResolver(true) to several
+     * services to share the projects they resolve.
+     */
+    public UserGroupService createUserGroupService(BlackDuckViewResolver blackDuckViewResolver) {
+        return new UserGroupService(blackDuckApiClient, apiDiscovery, logger, blackDuckViewResolver);
     }
 
     public ProjectMappingService createProjectMappingService() {
@@ -250,7 +319,11 @@ public class BlackDuckServicesFactory {
     }
 
     public IntelligentPersistenceService createIntelligentPersistenceService() {
-        IntelligentPersistenceBatchRunner batchRunner = new IntelligentPersistenceBatchRunner(logger, executorService, createBdio2FileUploadService());
+        return createIntelligentPersistenceService(Bdio2UploadJob.SERIAL_APPENDS);
+    }
+
+    public IntelligentPersistenceService createIntelligentPersistenceService(int appendConcurrency) {
+        IntelligentPersistenceBatchRunner batchRunner = new IntelligentPersistenceBatchRunner(logger, executorService, createBdio2FileUploadService(appendConcurrency));
         return new IntelligentPersistenceService(blackDuckApiClient, apiDiscovery, logger, batchRunner, createCodeLocationCreationService());
     }
 
@@ -258,6 +331,42 @@ public class BlackDuckServicesFactory {
         return new IacScanUploadService(blackDuckApiClient, apiDiscovery);
     }
 
+    /**
+     * The calls will run on this factory's ExecutorService, so with the
+     * default (no thread) ExecutorService, every future is already completed
+     * when it is returned. Every client made here shares one limit, the same
+     * size as the ExecutorService's if it is a
+     * ConcurrencyLimitedExecutorService, otherwise
+     * AsyncBlackDuckApiClient.DEFAULT_MAX_CONCURRENT_REQUESTS.
+     */
+    public AsyncBlackDuckApiClient createAsyncBlackDuckApiClient() {
+        return new AsyncBlackDuckApiClient(blackDuckApiClient, asyncRequestExecutorService);
+    }
+
+    /**
+     * The client gets a limit of its own, not shared with any other client.
+     */
+    public AsyncBlackDuckApiClient createAsyncBlackDuckApiClient(Executor executor, int maxConcurrentRequests) {
+        return new AsyncBlackDuckApiClient(blackDuckApiClient, executor, maxConcurrentRequests);
+    }
+
+    public ParallelRetriever createParallelRetriever() {
+        return new ParallelRetriever(executorService);
+    }
+
+    public BlackDuckViewResolver createBlackDuckViewResolver() {
+        return createBlackDuckViewResolver(false);
+    }
+
+    /**
+     * With retainResolvedViews true, the resolver keeps every view it
+     * resolves until it is cleared, so it can be shared by several services
+     * that each retrieve any given href only once between them.
+     */
+    public BlackDuckViewResolver createBlackDuckViewResolver(boolean retainResolvedViews) {
+        return new BlackDuckViewResolver(blackDuckApiClient, createParallelRetriever(), retainResolvedViews);
+    }
+
     public IntegrationEscapeUtil createIntegrationEscapeUtil() {
         return new IntegrationEscapeUtil();
     }
@@ -266,6 +375,28 @@ public class BlackDuckServicesFactory {
         return executorService;
     }
 
+    /**
+     * When this factory's ExecutorService limits its concurrency (for example,
+     * one from ConcurrencyLimitedExecutorService.withVirtualThreads), each
+     * runner gets its own limit of the same size, so a burst of uploads can
+     * not starve scans or page retrieval.
+     */
+    private ExecutorService createTargetExecutorService() {
+        if (executorService instanceof ConcurrencyLimitedExecutorService) {
+            ConcurrencyLimitedExecutorService concurrencyLimitedExecutorService = (ConcurrencyLimitedExecutorService) executorService;
+            return concurrencyLimitedExecutorService.withLimit(concurrencyLimitedExecutorService.getMaxConcurrency());
+        }
+        return executorService;
+    }
+
+    private static ConcurrencyLimitedExecutorService createAsyncRequestExecutorService(ExecutorService executorService) {
+        if (executorService instanceof ConcurrencyLimitedExecutorService) {
+            ConcurrencyLimitedExecutorService concurrencyLimitedExecutorService = (ConcurrencyLimitedExecutorService) executorService;
+            return concurrencyLimitedExecutorService.withLimit(concurrencyLimitedExecutorService.getMaxConcurrency());
+        }
+        return new ConcurrencyLimitedExecutorService(executorService, AsyncBlackDuckApiClient.DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
     public IntLogger getLogger() {
         return logger;
     }
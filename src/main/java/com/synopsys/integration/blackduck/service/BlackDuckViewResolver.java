@@ -0,0 +1,110 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+
+/**
+ * Resolves the hrefs that views refer to (the user of an assigned user, the
+ * project of an assigned project, etc.) into the views themselves. Every href
+ * is only retrieved once, and the unique hrefs are retrieved concurrently.
+ *
+ * If retainResolvedViews is true, resolved views are kept for the life of the
+ * resolver, so a resolver shared across services (or across many projects)
+ * will only ever retrieve a given href once. Use clear() to discard them.
+ */
+public class BlackDuckViewResolver {
+    private final BlackDuckApiClient blackDuckApiClient;
+    private final ParallelRetriever parallelRetriever;
+    private final boolean retainResolvedViews;
+    private final Map<String, BlackDuckResponse> resolvedViews = new ConcurrentHashMap<>();
+
+    public static BlackDuckViewResolver serial(BlackDuckApiClient blackDuckApiClient) {
+        return new BlackDuckViewResolver(blackDuckApiClient, ParallelRetriever.serial());
+    }
+
+    public BlackDuckViewResolver(BlackDuckApiClient blackDuckApiClient, ParallelRetriever parallelRetriever) {
+        this(blackDuckApiClient, parallelRetriever, false);
+    }
+
+    public BlackDuckViewResolver(BlackDuckApiClient blackDuckApiClient, ParallelRetriever parallelRetriever, boolean retainResolvedViews) {
+        this.blackDuckApiClient = blackDuckApiClient;
+        this.parallelRetriever = parallelRetriever;
+        this.retainResolvedViews = retainResolvedViews;
+    }
+
+    /**
+     * @return the resolved views in the order of the hrefs - hrefs that resolved to nothing are skipped.
+     * @throws IntegrationException if any href is blank, or could not be retrieved.
+     */
+    public <T extends BlackDuckResponse> List<T> resolve(Collection<String> hrefs, Class<T> viewClass) throws IntegrationException {
+        Map<String, T> resolvedByHref = resolveByHref(hrefs, viewClass);
+        List<T> views = new ArrayList<>(hrefs.size());
+        for (String href : hrefs) {
+            T view = resolvedByHref.get(href);
+            if (null != view) {
+                views.add(view);
+            }
+        }
+        return views;
+    }
+
+    public <T extends BlackDuckResponse> Map<String, T> resolveByHref(Collection<String> hrefs, Class<T> viewClass) throws IntegrationException {
+        Map<String, T> resolvedByHref = new HashMap<>();
+        Set<String> unresolvedHrefs = new LinkedHashSet<>();
+        for (String href : hrefs) {
+            if (StringUtils.isBlank(href)) {
+                throw new BlackDuckIntegrationException(String.format("A %s can not be resolved from a blank href.", viewClass.getSimpleName()));
+            }
+            BlackDuckResponse retained = resolvedViews.get(createKey(href, viewClass));
+            if (null != retained) {
+                resolvedByHref.put(href, viewClass.cast(retained));
+            } else {
+                unresolvedHrefs.add(href);
+            }
+        }
+
+        parallelRetriever.retrieveEach(unresolvedHrefs, href -> blackDuckApiClient.getResponse(new HttpUrl(href), viewClass), (href, view) -> {
+            if (null != view) {
+                resolvedByHref.put(href, view);
+                if (retainResolvedViews) {
+                    resolvedViews.put(createKey(href, viewClass), view);
+                }
+            }
+        });
+        return resolvedByHref;
+    }
+
+    public void clear() {
+        resolvedViews.clear();
+    }
+
+    public ParallelRetriever getParallelRetriever() {
+        return parallelRetriever;
+    }
+
+    private String createKey(String href, Class<?> viewClass) {
+        // the same href can be retrieved as different views
+        return viewClass.getName() + " " + href;
+    }
+
+}
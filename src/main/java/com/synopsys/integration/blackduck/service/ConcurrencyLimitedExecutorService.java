@@ -0,0 +1,250 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.service;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every task on the delegate Executor, but no more than
+ * maxConcurrency of them at once. Tasks beyond the limit wait in this
+ * executor's own queue and are only handed to the delegate once a running
+ * task finishes, so a waiting task never holds one of the delegate's threads.
+ *
+ * A limit for a single target (uploads, scans, etc.) can be made with
+ * withLimit: it has its own permits and queue. Shutting down such a view only
+ * stops it from accepting tasks, the delegate is only shut down by the
+ * ExecutorService that created it.
+ */
+public class ConcurrencyLimitedExecutorService extends AbstractExecutorService {
+    private static final long IDLE_THREAD_SECONDS = 60;
+
+    private final Executor delegate;
+    // only set for a delegate this executor created, and so has to shut down
+    private final ExecutorService ownedDelegate;
+    private final boolean fallbackPool;
+    private final int maxConcurrency;
+
+    private final Object lock = new Object();
+    private final Queue<Runnable> queuedTasks = new ArrayDeque<>();
+    private int runningTasks = 0;
+    private int activeTasks = 0;
+    private volatile boolean shutdown = false;
+
+    /**
+     * On a jvm with virtual threads (21+), each task gets its own virtual
+     * thread. Otherwise, a pool of at most maxConcurrency daemon threads is
+     * used, and each view made by withLimit gets a pool of its own, so one
+     * target's backlog can not take the threads of another.
+     */
+    public static ConcurrencyLimitedExecutorService withVirtualThreads(int maxConcurrency) {
+        ExecutorService virtualThreadExecutorService = createVirtualThreadPerTaskExecutor();
+        if (null == virtualThreadExecutorService) {
+            ExecutorService daemonPool = createDaemonPool(maxConcurrency);
+            return new ConcurrencyLimitedExecutorService(daemonPool, maxConcurrency, daemonPool, true);
+        }
+        return new ConcurrencyLimitedExecutorService(virtualThreadExecutorService, maxConcurrency, virtualThreadExecutorService, false);
+    }
+
+    public static boolean isVirtualThreadsAvailable() {
+        return null != findVirtualThreadPerTaskExecutorMethod();
+    }
+
+    public ConcurrencyLimitedExecutorService(Executor delegate, int maxConcurrency) {
+        this(delegate, maxConcurrency, null, false);
+    }
+
+    private ConcurrencyLimitedExecutorService(Executor delegate, int maxConcurrency, ExecutorService ownedDelegate, boolean fallbackPool) {
+        this.delegate = delegate;
+        this.ownedDelegate = ownedDelegate;
+        this.fallbackPool = fallbackPool;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    public ConcurrencyLimitedExecutorService withLimit(int maxConcurrency) {
+        if (fallbackPool) {
+            // idle threads time out, so a view that is never shut down does not keep its pool
+            ExecutorService daemonPool = createDaemonPool(maxConcurrency);
+            return new ConcurrencyLimitedExecutorService(daemonPool, maxConcurrency, daemonPool, true);
+        }
+        return new ConcurrencyLimitedExecutorService(delegate, maxConcurrency, null, false);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the tasks that are running or waiting to run.
+     */
+    public int getActiveTaskCount() {
+        synchronized (lock) {
+            return activeTasks;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        synchronized (lock) {
+            if (shutdown) {
+                throw new RejectedExecutionException("The executor has been shut down.");
+            }
+            activeTasks++;
+            queuedTasks.add(command);
+        }
+        dispatch();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (null != ownedDelegate) {
+            ownedDelegate.shutdown();
+        }
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> neverRun = new ArrayList<>();
+        synchronized (lock) {
+            neverRun.addAll(queuedTasks);
+            activeTasks -= queuedTasks.size();
+            queuedTasks.clear();
+            lock.notifyAll();
+        }
+        if (null != ownedDelegate) {
+            ownedDelegate.shutdownNow();
+        }
+        return neverRun;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        synchronized (lock) {
+            return shutdown && 0 == activeTasks && (null == ownedDelegate || ownedDelegate.isTerminated());
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            while (!shutdown || activeTasks > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+        }
+        if (null != ownedDelegate) {
+            return ownedDelegate.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    // The permit is taken here, on the submitting (or finishing) thread, before
+    // the task reaches the delegate - a delegate thread never waits for one.
+    private void dispatch() {
+        while (true) {
+            Runnable next;
+            synchronized (lock) {
+                if (runningTasks >= maxConcurrency || queuedTasks.isEmpty()) {
+                    return;
+                }
+                next = queuedTasks.poll();
+                runningTasks++;
+            }
+            try {
+                delegate.execute(() -> runAndDispatch(next));
+            } catch (RejectedExecutionException e) {
+                if (next instanceof Future) {
+                    ((Future<?>) next).cancel(false);
+                }
+                synchronized (lock) {
+                    runningTasks--;
+                }
+                taskFinished();
+            }
+        }
+    }
+
+    private void runAndDispatch(Runnable command) {
+        try {
+            command.run();
+        } finally {
+            synchronized (lock) {
+                runningTasks--;
+            }
+            taskFinished();
+            dispatch();
+        }
+    }
+
+    private void taskFinished() {
+        synchronized (lock) {
+            activeTasks--;
+            if (0 == activeTasks) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static ExecutorService createDaemonPool(int maxConcurrency) {
+        int threads = Math.max(1, maxConcurrency);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "blackduck-bounded-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ExecutorService createVirtualThreadPerTaskExecutor() {
+        Method method = findVirtualThreadPerTaskExecutorMethod();
+        if (null == method) {
+            return null;
+        }
+        try {
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Method findVirtualThreadPerTaskExecutorMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
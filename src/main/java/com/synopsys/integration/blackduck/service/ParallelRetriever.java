@@ -0,0 +1,214 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2023 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.exception.BlackDuckPagingException;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.util.NoThreadExecutorService;
+
+/**
+ * Runs many independent retrievals (usually one or more Black Duck requests
+ * each) on an ExecutorService, never with more than maxParallelism of them in
+ * flight at once, so a large BOM can't flood the executor or the server.
+ */
+public class ParallelRetriever {
+    public static final int DEFAULT_MAX_PARALLELISM = 8;
+    public static final int UNKNOWN_TOTAL_COUNT = -1;
+    public static final ProgressListener NO_PROGRESS = (retrievedCount, totalCount) -> {};
+
+    private final ExecutorService executorService;
+    private final int maxParallelism;
+
+    public static ParallelRetriever serial() {
+        return new ParallelRetriever(new NoThreadExecutorService(), 1);
+    }
+
+    public ParallelRetriever(ExecutorService executorService) {
+        this(executorService, DEFAULT_MAX_PARALLELISM);
+    }
+
+    public ParallelRetriever(ExecutorService executorService, int maxParallelism) {
+        this.executorService = executorService;
+        this.maxParallelism = Math.max(1, maxParallelism);
+    }
+
+    /**
+     * @return a retriever sharing this executor, but with its own limit.
+     */
+    public ParallelRetriever withMaxParallelism(int maxParallelism) {
+        return new ParallelRetriever(executorService, maxParallelism);
+    }
+
+    public <T, R> List<R> retrieveAll(Collection<T> inputs, Retrieval<T, R> retrieval) throws IntegrationException {
+        return retrieveAll(inputs, retrieval, NO_PROGRESS);
+    }
+
+    /**
+     * @return the results in the same order as the inputs.
+     */
+    public <T, R> List<R> retrieveAll(Collection<T> inputs, Retrieval<T, R> retrieval, ProgressListener progressListener) throws IntegrationException {
+        List<T> inputList = new ArrayList<>(inputs);
+        List<Integer> indices = new ArrayList<>(inputList.size());
+        List<R> results = new ArrayList<>(inputList.size());
+        for (int i = 0; i < inputList.size(); i++) {
+            indices.add(i);
+            results.add(null);
+        }
+
+        retrieveEach(indices, index -> retrieval.retrieve(inputList.get(index)), results::set, progressListener);
+        return results;
+    }
+
+    public <T, R> void retrieveEach(Collection<T> inputs, Retrieval<T, R> retrieval, RetrievedConsumer<T, R> consumer) throws IntegrationException {
+        retrieveEach(inputs, retrieval, consumer, NO_PROGRESS);
+    }
+
+    /**
+     * Each result is handed to the consumer as soon as it is retrieved, so
+     * results arrive in the order they complete rather than the order of the
+     * inputs. The consumer and progressListener are only ever called from the
+     * calling thread.
+     *
+     * While waiting, the calling thread runs any retrieval the executor has
+     * not started yet itself. A retrieval that is already running on the
+     * executor (for example, one resolving views inside another retrieval)
+     * can therefore never wait on work queued behind it, however small the
+     * executor is.
+     */
+    public <T, R> void retrieveEach(Collection<T> inputs, Retrieval<T, R> retrieval, RetrievedConsumer<T, R> consumer, ProgressListener progressListener)
+        throws IntegrationException {
+        retrieveEach(inputs.iterator(), inputs.size(), retrieval, consumer, progressListener);
+    }
+
+    /**
+     * Like retrieveEach for a collection, but the inputs are only taken from
+     * the iterator (on the calling thread) as retrievals finish, so a paged
+     * iterator is never read further ahead than maxParallelism. The
+     * progressListener is given UNKNOWN_TOTAL_COUNT as the total.
+     */
+    public <T, R> void retrieveEach(Iterator<T> inputs, Retrieval<T, R> retrieval, RetrievedConsumer<T, R> consumer, ProgressListener progressListener)
+        throws IntegrationException {
+        retrieveEach(inputs, UNKNOWN_TOTAL_COUNT, retrieval, consumer, progressListener);
+    }
+
+    private <T, R> void retrieveEach(Iterator<T> remaining, int totalCount, Retrieval<T, R> retrieval, RetrievedConsumer<T, R> consumer, ProgressListener progressListener)
+        throws IntegrationException {
+        BlockingQueue<RetrievalTask<T, R>> completed = new LinkedBlockingQueue<>();
+        List<RetrievalTask<T, R>> inFlight = new ArrayList<>();
+        int retrievedCount = 0;
+
+        try {
+            while (remaining.hasNext() && inFlight.size() < maxParallelism) {
+                inFlight.add(submit(remaining.next(), retrieval, completed));
+            }
+            while (!inFlight.isEmpty()) {
+                RetrievalTask<T, R> retrieved = completed.poll();
+                if (null == retrieved) {
+                    runOneNotStarted(inFlight);
+                    retrieved = completed.take();
+                }
+                inFlight.remove(retrieved);
+                consumer.accept(retrieved.input, retrieved.get());
+                progressListener.retrieved(++retrievedCount, totalCount);
+                if (remaining.hasNext()) {
+                    inFlight.add(submit(remaining.next(), retrieval, completed));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlackDuckIntegrationException(String.format("Interrupted while retrieving: %s", e.getMessage()), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IntegrationException) {
+                throw (IntegrationException) e.getCause();
+            }
+            throw new BlackDuckIntegrationException(String.format("Encountered a problem retrieving: %s", e.getCause().getMessage()), e.getCause());
+        } catch (BlackDuckPagingException e) {
+            throw e.getIntegrationException();
+        } finally {
+            // if one retrieval failed, there is no point finishing the rest
+            for (RetrievalTask<T, R> task : inFlight) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    private <T, R> RetrievalTask<T, R> submit(T input, Retrieval<T, R> retrieval, BlockingQueue<RetrievalTask<T, R>> completed) {
+        RetrievalTask<T, R> task = new RetrievalTask<>(input, retrieval, completed);
+        try {
+            executorService.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the task stays unstarted, so the calling thread will run it
+        }
+        return task;
+    }
+
+    // FutureTask.run does nothing for a task that is already running or done,
+    // so only a task the executor has not picked up yet is run here.
+    private <T, R> void runOneNotStarted(List<RetrievalTask<T, R>> inFlight) {
+        for (RetrievalTask<T, R> task : new ArrayList<>(inFlight)) {
+            if (!task.isDone()) {
+                task.run();
+                if (task.isDone()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Retrieval<T, R> {
+        R retrieve(T input) throws IntegrationException;
+
+    }
+
+    @FunctionalInterface
+    public interface RetrievedConsumer<T, R> {
+        void accept(T input, R result) throws IntegrationException;
+
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void retrieved(int retrievedCount, int totalCount);
+
+    }
+
+    private static class RetrievalTask<T, R> extends FutureTask<R> {
+        private final T input;
+        private final BlockingQueue<RetrievalTask<T, R>> completed;
+
+        public RetrievalTask(T input, Retrieval<T, R> retrieval, BlockingQueue<RetrievalTask<T, R>> completed) {
+            super(() -> retrieval.retrieve(input));
+            this.input = input;
+            this.completed = completed;
+        }
+
+        @Override
+        protected void done() {
+            completed.add(this);
+        }
+
+    }
+
+}
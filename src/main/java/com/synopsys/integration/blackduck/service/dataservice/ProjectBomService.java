@@ -9,8 +9,12 @@ package com.synopsys.integration.blackduck.service.dataservice;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -28,6 +32,7 @@ import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionVulne
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.blackduck.service.DataService;
+import com.synopsys.integration.blackduck.service.ParallelRetriever;
 import com.synopsys.integration.blackduck.service.model.ComponentVersionVulnerabilities;
 import com.synopsys.integration.blackduck.service.model.VersionBomComponentModel;
 import com.synopsys.integration.blackduck.service.request.BlackDuckResponseRequest;
@@ -39,10 +44,16 @@ import com.synopsys.integration.rest.response.Response;
 
 public class ProjectBomService extends DataService {
     private final ComponentService componentService;
+    private final ParallelRetriever parallelRetriever;
 
     public ProjectBomService(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, ComponentService componentService) {
+        this(blackDuckApiClient, apiDiscovery, logger, componentService, ParallelRetriever.serial());
+    }
+
+    public ProjectBomService(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, ComponentService componentService, ParallelRetriever parallelRetriever) {
         super(blackDuckApiClient, apiDiscovery, logger);
         this.componentService = componentService;
+        this.parallelRetriever = parallelRetriever;
     }
 
     public List<ProjectVersionComponentVersionView> getComponentsForProjectVersion(ProjectVersionView projectVersionView) throws IntegrationException {
@@ -74,15 +85,77 @@ public class ProjectBomService extends DataService {
         return componentVersionVulnerabilitiesList;
     }
 
+    /**
+     * Like getComponentVersionVulnerabilities, but each component version is
+     * only retrieved once, no matter how many BOM components use it, and the
+     * component versions are retrieved concurrently.
+     */
+    public List<ComponentVersionVulnerabilities> getComponentVersionVulnerabilitiesInBulk(ProjectVersionView projectVersionView) throws IntegrationException {
+        List<ProjectVersionComponentVersionView> projectVersionComponentViews = getComponentsForProjectVersion(projectVersionView);
+        Set<String> componentVersionUrls = new LinkedHashSet<>();
+        for (ProjectVersionComponentVersionView projectVersionComponentVersionView : projectVersionComponentViews) {
+            if (StringUtils.isNotBlank(projectVersionComponentVersionView.getComponentVersion())) {
+                componentVersionUrls.add(projectVersionComponentVersionView.getComponentVersion());
+            }
+        }
+
+        return retrieveComponentVersionVulnerabilities(componentVersionUrls);
+    }
+
+    /**
+     * Only the component versions the BOM reports as vulnerable are retrieved,
+     * so components without any vulnerabilities are skipped entirely rather
+     * than returned with an empty list.
+     */
+    public List<ComponentVersionVulnerabilities> getVulnerableComponentVersionVulnerabilitiesInBulk(ProjectVersionView projectVersionView) throws IntegrationException {
+        List<ProjectVersionVulnerableBomComponentsView> vulnerableBomComponentViews = getVulnerableComponentsForProjectVersion(projectVersionView);
+        Set<String> componentVersionUrls = new LinkedHashSet<>();
+        for (ProjectVersionVulnerableBomComponentsView vulnerableBomComponentView : vulnerableBomComponentViews) {
+            if (StringUtils.isNotBlank(vulnerableBomComponentView.getComponentVersion())) {
+                componentVersionUrls.add(vulnerableBomComponentView.getComponentVersion());
+            }
+        }
+
+        return retrieveComponentVersionVulnerabilities(componentVersionUrls);
+    }
+
     public List<VersionBomComponentModel> getComponentsWithMatchedFilesForProjectVersion(ProjectVersionView version) throws IntegrationException {
         List<ProjectVersionComponentVersionView> bomComponents = blackDuckApiClient.getAllResponses(version.metaComponentsLink());
         List<VersionBomComponentModel> modelBomComponents = new ArrayList<>(bomComponents.size());
         for (ProjectVersionComponentVersionView component : bomComponents) {
-            modelBomComponents.add(new VersionBomComponentModel(component, getMatchedFiles(component)));
+            modelBomComponents.add(createVersionBomComponentModel(component));
         }
         return modelBomComponents;
     }
 
+    /**
+     * The matched files of up to maxParallelism components are retrieved at
+     * once, on the ParallelRetriever's executor. The models are returned in
+     * the same order as the BOM components.
+     */
+    public List<VersionBomComponentModel> getComponentsWithMatchedFilesForProjectVersion(ProjectVersionView version, int maxParallelism, ParallelRetriever.ProgressListener progressListener)
+        throws IntegrationException {
+        List<ProjectVersionComponentVersionView> bomComponents = blackDuckApiClient.getAllResponses(version.metaComponentsLink());
+        return parallelRetriever.withMaxParallelism(maxParallelism).retrieveAll(bomComponents, this::createVersionBomComponentModel, progressListener);
+    }
+
+    /**
+     * Rather than waiting for every component, each model is handed to the
+     * consumer (on the calling thread) as soon as its matched files arrive.
+     * The BOM components are paged in as they are needed rather than loaded
+     * up front, so the progressListener is not told the total count.
+     */
+    public void streamComponentsWithMatchedFilesForProjectVersion(
+        ProjectVersionView version,
+        int maxParallelism,
+        ParallelRetriever.ProgressListener progressListener,
+        Consumer<VersionBomComponentModel> consumer
+    ) throws IntegrationException {
+        Iterator<ProjectVersionComponentVersionView> bomComponents = blackDuckApiClient.getResponsesIterator(version.metaComponentsLink());
+        parallelRetriever.withMaxParallelism(maxParallelism)
+            .retrieveEach(bomComponents, this::createVersionBomComponentModel, (component, versionBomComponentModel) -> consumer.accept(versionBomComponentModel), progressListener);
+    }
+
     public Optional<ProjectVersionPolicyStatusView> getPolicyStatusForVersion(ProjectVersionView version) throws IntegrationException {
         if (version.metaPolicyStatusLinkSafely().isPresent()) {
             return Optional.ofNullable(blackDuckApiClient.getResponse(version.metaPolicyStatusLink()));
@@ -143,6 +216,17 @@ public class ProjectBomService extends DataService {
         }
     }
 
+    private List<ComponentVersionVulnerabilities> retrieveComponentVersionVulnerabilities(Set<String> componentVersionUrls) throws IntegrationException {
+        return parallelRetriever.retrieveAll(componentVersionUrls, componentVersionUrl -> {
+            ComponentVersionView componentVersionView = blackDuckApiClient.getResponse(new HttpUrl(componentVersionUrl), ComponentVersionView.class);
+            return componentService.getComponentVersionVulnerabilities(componentVersionView);
+        });
+    }
+
+    private VersionBomComponentModel createVersionBomComponentModel(ProjectVersionComponentVersionView component) throws IntegrationException {
+        return new VersionBomComponentModel(component, getMatchedFiles(component));
+    }
+
     private List<ComponentMatchedFilesView> getMatchedFiles(ProjectVersionComponentVersionView component) throws IntegrationException {
         List<ComponentMatchedFilesView> matchedFiles = new ArrayList<>(0);
         List<ComponentMatchedFilesView> tempMatchedFiles = blackDuckApiClient.getAllResponses(component.metaMatchedFilesLink());
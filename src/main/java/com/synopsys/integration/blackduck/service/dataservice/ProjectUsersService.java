@@ -7,7 +7,6 @@
  */
 package com.synopsys.integration.blackduck.service.dataservice;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +24,7 @@ import com.synopsys.integration.blackduck.api.manual.temporary.response.Assigned
 import com.synopsys.integration.blackduck.api.manual.temporary.view.AssignedUserView;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.BlackDuckViewResolver;
 import com.synopsys.integration.blackduck.service.DataService;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
@@ -32,10 +32,16 @@ import com.synopsys.integration.rest.HttpUrl;
 
 public class ProjectUsersService extends DataService {
     private final UserGroupService userGroupService;
+    private final BlackDuckViewResolver blackDuckViewResolver;
 
     public ProjectUsersService(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, UserGroupService userGroupService) {
+        this(blackDuckApiClient, apiDiscovery, logger, userGroupService, BlackDuckViewResolver.serial(blackDuckApiClient));
+    }
+
+    public ProjectUsersService(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, UserGroupService userGroupService, BlackDuckViewResolver blackDuckViewResolver) {
         super(blackDuckApiClient, apiDiscovery, logger);
         this.userGroupService = userGroupService;
+        this.blackDuckViewResolver = blackDuckViewResolver;
     }
 
     public List<AssignedUserView> getAssignedUsersToProject(ProjectView project) throws IntegrationException {
@@ -47,15 +53,11 @@ public class ProjectUsersService extends DataService {
         logger.debug("Attempting to get the assigned users for Project: " + project.getName());
         List<AssignedUserView> assignedUsers = getAssignedUsersToProject(project);
 
-        List<UserView> resolvedUserViews = new ArrayList<>();
-        for (AssignedUserView assigned : assignedUsers) {
-            HttpUrl userUrl = new HttpUrl(assigned.getUser());
-            UserView userView = blackDuckApiClient.getResponse(userUrl, UserView.class);
-            if (userView != null) {
-                resolvedUserViews.add(userView);
-            }
-        }
-        return resolvedUserViews;
+        List<String> userHrefs = assignedUsers
+                                     .stream()
+                                     .map(AssignedUserView::getUser)
+                                     .collect(Collectors.toList());
+        return blackDuckViewResolver.resolve(userHrefs, UserView.class);
     }
 
     public List<AssignedUserGroupView> getAssignedGroupsToProject(ProjectView project) throws IntegrationException {
@@ -67,15 +69,11 @@ public class ProjectUsersService extends DataService {
         logger.debug("Attempting to get the assigned users for Project: " + project.getName());
         List<AssignedUserGroupView> assignedGroups = getAssignedGroupsToProject(project);
 
-        List<UserGroupView> resolvedGroupViews = new ArrayList<>();
-        for (AssignedUserGroupView assigned : assignedGroups) {
-            HttpUrl groupUrl = new HttpUrl(assigned.getGroup());
-            UserGroupView groupView = blackDuckApiClient.getResponse(groupUrl, UserGroupView.class);
-            if (groupView != null) {
-                resolvedGroupViews.add(groupView);
-            }
-        }
-        return resolvedGroupViews;
+        List<String> groupHrefs = assignedGroups
+                                      .stream()
+                                      .map(AssignedUserGroupView::getGroup)
+                                      .collect(Collectors.toList());
+        return blackDuckViewResolver.resolve(groupHrefs, UserGroupView.class);
     }
 
     /**
@@ -84,24 +82,23 @@ public class ProjectUsersService extends DataService {
     public Set<UserView> getAllActiveUsersForProject(ProjectView projectView) throws IntegrationException {
         Set<UserView> users = new HashSet<>();
 
-        List<AssignedUserGroupView> assignedGroups = getAssignedGroupsToProject(projectView);
-        for (AssignedUserGroupView assignedUserGroupView : assignedGroups) {
-            if (assignedUserGroupView.getActive()) {
-                HttpUrl groupUrl = new HttpUrl(assignedUserGroupView.getGroup());
-                UserGroupView userGroupView = blackDuckApiClient.getResponse(groupUrl, UserGroupView.class);
-                if (userGroupView.getActive()) {
-                    List<UserView> groupUsers = blackDuckApiClient.getAllResponses(userGroupView.metaUsersLink());
-                    users.addAll(groupUsers);
-                }
-            }
-        }
-
-        List<AssignedUserView> assignedUsers = getAssignedUsersToProject(projectView);
-        for (AssignedUserView assignedUser : assignedUsers) {
-            HttpUrl userUrl = new HttpUrl(assignedUser.getUser());
-            UserView userView = blackDuckApiClient.getResponse(userUrl, UserView.class);
-            users.add(userView);
-        }
+        List<String> activeGroupHrefs = getAssignedGroupsToProject(projectView)
+                                            .stream()
+                                            .filter(AssignedUserGroupView::getActive)
+                                            .map(AssignedUserGroupView::getGroup)
+                                            .collect(Collectors.toList());
+        List<UserGroupView> activeGroups = blackDuckViewResolver.resolve(activeGroupHrefs, UserGroupView.class)
+                                               .stream()
+                                               .filter(UserGroupView::getActive)
+                                               .collect(Collectors.toList());
+        List<List<UserView>> groupsUsers = blackDuckViewResolver.getParallelRetriever().retrieveAll(activeGroups, userGroupView -> blackDuckApiClient.getAllResponses(userGroupView.metaUsersLink()));
+        groupsUsers.forEach(users::addAll);
+
+        List<String> userHrefs = getAssignedUsersToProject(projectView)
+                                     .stream()
+                                     .map(AssignedUserView::getUser)
+                                     .collect(Collectors.toList());
+        users.addAll(blackDuckViewResolver.resolve(userHrefs, UserView.class));
 
         return users
                    .stream()
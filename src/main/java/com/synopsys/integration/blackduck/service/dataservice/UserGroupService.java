@@ -15,6 +15,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
 import com.synopsys.integration.blackduck.api.generated.response.AssignedProjectView;
@@ -24,6 +25,7 @@ import com.synopsys.integration.blackduck.api.generated.view.UserGroupView;
 import com.synopsys.integration.blackduck.api.generated.view.UserView;
 import com.synopsys.integration.blackduck.api.manual.temporary.component.UserGroupRequest;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.BlackDuckViewResolver;
 import com.synopsys.integration.blackduck.service.DataService;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
@@ -32,8 +34,15 @@ import com.synopsys.integration.rest.HttpUrl;
 public class UserGroupService extends DataService {
     public static final BiPredicate<String, UserView> MATCHING_USERNAME = (username, userView) -> username.equalsIgnoreCase(userView.getUserName());
 
+    private final BlackDuckViewResolver blackDuckViewResolver;
+
     public UserGroupService(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger) {
+        this(blackDuckApiClient, apiDiscovery, logger, BlackDuckViewResolver.serial(blackDuckApiClient));
+    }
+
+    public UserGroupService(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, BlackDuckViewResolver blackDuckViewResolver) {
         super(blackDuckApiClient, apiDiscovery, logger);
+        this.blackDuckViewResolver = blackDuckViewResolver;
     }
 
     public UserGroupView createUserGroup(UserGroupRequest userGroupRequest) throws IntegrationException {
@@ -65,16 +74,11 @@ public class UserGroupService extends DataService {
         logger.debug("Attempting to get the assigned projects for User: " + userView.getUserName());
         List<AssignedProjectView> assignedProjectViews = blackDuckApiClient.getAllResponses(userView.metaProjectsLink());
 
-        List<ProjectView> resolvedProjectViews = new ArrayList<>();
-        for (AssignedProjectView assigned : assignedProjectViews) {
-            HttpUrl projectUrl = new HttpUrl(assigned.getProject());
-            ProjectView project = blackDuckApiClient.getResponse(projectUrl, ProjectView.class);
-            if (project != null) {
-                resolvedProjectViews.add(project);
-            }
-        }
-
-        return resolvedProjectViews;
+        List<String> projectHrefs = assignedProjectViews
+                                        .stream()
+                                        .map(AssignedProjectView::getProject)
+                                        .collect(Collectors.toList());
+        return blackDuckViewResolver.resolve(projectHrefs, ProjectView.class);
     }
 
     public List<RoleAssignmentView> getRolesForUser(String username) throws IntegrationException {
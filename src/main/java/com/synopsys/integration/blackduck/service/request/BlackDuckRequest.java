@@ -68,4 +68,8 @@ public class BlackDuckRequest<T extends BlackDuckResponse, U extends UrlResponse
         return urlResponse.getResponseClass();
     }
 
+    public boolean isReadOnly() {
+        return blackDuckRequestBuilder.isReadOnly();
+    }
+
 }
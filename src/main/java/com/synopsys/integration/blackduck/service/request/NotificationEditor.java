@@ -60,6 +60,14 @@ public class NotificationEditor extends Stringable implements BlackDuckRequestBu
             .addBlackDuckFilter(notificationTypeFilter);
     }
 
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
     public List<String> getNotificationTypesToInclude() {
         return notificationTypesToInclude;
     }
@@ -1,9 +1,17 @@
 package com.synopsys.integration.blackduck.bdio2;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +61,119 @@ public class Bdio2UploadJobTest {
         Assertions.assertThrows(IntegrationTimeoutException.class, () -> jobExecutor.executeJob(bdio2UploadJob));
     }
 
+    @Test
+    public void testConcurrentAppendsFinishAfterEveryAppend() throws Exception {
+        int entryCount = 8;
+        int appendConcurrency = 4;
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger acknowledged = new AtomicInteger();
+        AtomicInteger acknowledgedAtFinish = new AtomicInteger(-1);
+        CountDownLatch allStarted = new CountDownLatch(appendConcurrency);
+
+        Bdio2RetryAwareStreamUploader bdio2StreamUploader = Mockito.mock(Bdio2RetryAwareStreamUploader.class);
+        Response successResponse = Mockito.mock(Response.class);
+        Mockito.when(successResponse.isStatusCodeSuccess()).thenReturn(true);
+        Mockito.when(successResponse.getHeaderValue("location")).thenReturn("https://server.blackduck.com/api/endpoint/scanId");
+        Mockito.when(bdio2StreamUploader.start(Mockito.any(), Mockito.any())).thenReturn(successResponse);
+        Mockito.when(bdio2StreamUploader.append(Mockito.any(HttpUrl.class), Mockito.eq(entryCount), Mockito.any(BdioFileContent.class), Mockito.any(BlackDuckRequestBuilderEditor.class)))
+            .thenAnswer(invocation -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                allStarted.countDown();
+                allStarted.await(5, TimeUnit.SECONDS);
+                inFlight.decrementAndGet();
+                acknowledged.incrementAndGet();
+                return successResponse;
+            });
+        Mockito.when(bdio2StreamUploader.finish(Mockito.any(), Mockito.eq(entryCount), Mockito.any())).thenAnswer(invocation -> {
+            acknowledgedAtFinish.set(acknowledged.get());
+            return successResponse;
+        });
+
+        List<BdioFileContent> entries = new ArrayList<>();
+        for (int i = 0; i < entryCount; i++) {
+            entries.add(new BdioFileContent(String.format("bdio-entry-%02d.jsonld", i), ""));
+        }
+        BdioFileContent header = new BdioFileContent("bdio-header.jsonld", "");
+        BlackDuckRequestBuilderEditor editor = Mockito.mock(BlackDuckRequestBuilderEditor.class);
+        ExecutorService executorService = Executors.newFixedThreadPool(entryCount);
+        try {
+            Bdio2UploadJob bdio2UploadJob = new Bdio2UploadJob(bdio2StreamUploader, header, entries, editor, entryCount, true, true, appendConcurrency, executorService);
+
+            Bdio2UploadResult result = getJobExecutor().executeJob(bdio2UploadJob);
+
+            Assertions.assertEquals("scanId", result.getScanId());
+            Assertions.assertEquals(appendConcurrency, maxInFlight.get());
+            Assertions.assertEquals(entryCount, acknowledgedAtFinish.get());
+            Mockito.verify(bdio2StreamUploader, Mockito.times(1)).finish(Mockito.any(), Mockito.eq(entryCount), Mockito.any());
+            Assertions.assertFalse(executorService.isShutdown(), "the appends should only use the executor, not shut it down");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRetryResendsOnlyMissingEntriesToSameUpload() throws Exception {
+        Bdio2RetryAwareStreamUploader bdio2StreamUploader = Mockito.mock(Bdio2RetryAwareStreamUploader.class);
+        Response successResponse = Mockito.mock(Response.class);
+        Mockito.when(successResponse.isStatusCodeSuccess()).thenReturn(true);
+        Mockito.when(successResponse.getHeaderValue("location")).thenReturn("https://server.blackduck.com/api/endpoint/scanId");
+        Mockito.when(bdio2StreamUploader.start(Mockito.any(), Mockito.any())).thenReturn(successResponse);
+        Mockito.when(bdio2StreamUploader.append(Mockito.any(HttpUrl.class), Mockito.anyInt(), Mockito.any(BdioFileContent.class), Mockito.any(BlackDuckRequestBuilderEditor.class)))
+            .thenReturn(successResponse);
+        Mockito.when(bdio2StreamUploader.finish(Mockito.any(), Mockito.anyInt(), Mockito.any())).thenReturn(successResponse);
+
+        BdioFileContent header = new BdioFileContent("bdio-header.jsonld", "");
+        BdioFileContent first = new BdioFileContent("bdio-entry-00.jsonld", "");
+        BdioFileContent flaky = new BdioFileContent("bdio-entry-01.jsonld", "");
+        BdioFileContent last = new BdioFileContent("bdio-entry-02.jsonld", "");
+        Mockito.when(bdio2StreamUploader.append(Mockito.any(HttpUrl.class), Mockito.anyInt(), Mockito.eq(flaky), Mockito.any(BlackDuckRequestBuilderEditor.class)))
+            .thenThrow(new RetriableBdioUploadException())
+            .thenReturn(successResponse);
+
+        BlackDuckRequestBuilderEditor editor = Mockito.mock(BlackDuckRequestBuilderEditor.class);
+        List<BdioFileContent> entries = new ArrayList<>();
+        entries.add(first);
+        entries.add(flaky);
+        entries.add(last);
+        Bdio2UploadJob bdio2UploadJob = new Bdio2UploadJob(bdio2StreamUploader, header, entries, editor, entries.size(), true, true);
+
+        Bdio2UploadResult result = getJobExecutor().executeJob(bdio2UploadJob);
+
+        Assertions.assertEquals("scanId", result.getScanId());
+        Mockito.verify(bdio2StreamUploader, Mockito.times(1)).start(Mockito.any(), Mockito.any());
+        Mockito.verify(bdio2StreamUploader, Mockito.times(1)).append(Mockito.any(HttpUrl.class), Mockito.anyInt(), Mockito.eq(first), Mockito.any(BlackDuckRequestBuilderEditor.class));
+        Mockito.verify(bdio2StreamUploader, Mockito.times(2)).append(Mockito.any(HttpUrl.class), Mockito.anyInt(), Mockito.eq(flaky), Mockito.any(BlackDuckRequestBuilderEditor.class));
+        Mockito.verify(bdio2StreamUploader, Mockito.times(1)).append(Mockito.any(HttpUrl.class), Mockito.anyInt(), Mockito.eq(last), Mockito.any(BlackDuckRequestBuilderEditor.class));
+        Mockito.verify(bdio2StreamUploader, Mockito.times(1)).finish(Mockito.any(), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    public void testUploadStartedAgainOnceItIsGone() throws Exception {
+        Bdio2RetryAwareStreamUploader bdio2StreamUploader = Mockito.mock(Bdio2RetryAwareStreamUploader.class);
+        Response goneUploadResponse = Mockito.mock(Response.class);
+        Mockito.when(goneUploadResponse.isStatusCodeSuccess()).thenReturn(true);
+        Mockito.when(goneUploadResponse.getHeaderValue("location")).thenReturn("https://server.blackduck.com/api/endpoint/goneScanId");
+        Response newUploadResponse = Mockito.mock(Response.class);
+        Mockito.when(newUploadResponse.isStatusCodeSuccess()).thenReturn(true);
+        Mockito.when(newUploadResponse.getHeaderValue("location")).thenReturn("https://server.blackduck.com/api/endpoint/scanId");
+        Mockito.when(bdio2StreamUploader.start(Mockito.any(), Mockito.any())).thenReturn(goneUploadResponse).thenReturn(newUploadResponse);
+
+        ArgumentMatcher<HttpUrl> goneUploadUrl = url -> null != url && url.string().endsWith("/goneScanId");
+        ArgumentMatcher<HttpUrl> newUploadUrl = url -> null != url && url.string().endsWith("/scanId");
+        Mockito.when(bdio2StreamUploader.append(Mockito.argThat(goneUploadUrl), Mockito.anyInt(), Mockito.any(BdioFileContent.class), Mockito.any(BlackDuckRequestBuilderEditor.class)))
+            .thenThrow(new RetriableBdioUploadException(410));
+        Mockito.when(bdio2StreamUploader.append(Mockito.argThat(newUploadUrl), Mockito.anyInt(), Mockito.any(BdioFileContent.class), Mockito.any(BlackDuckRequestBuilderEditor.class)))
+            .thenReturn(newUploadResponse);
+        Mockito.when(bdio2StreamUploader.finish(Mockito.any(), Mockito.anyInt(), Mockito.any())).thenReturn(newUploadResponse);
+
+        Bdio2UploadResult result = getJobExecutor().executeJob(getUploadJob(bdio2StreamUploader));
+
+        Assertions.assertEquals("scanId", result.getScanId());
+        Mockito.verify(bdio2StreamUploader, Mockito.times(2)).start(Mockito.any(), Mockito.any());
+        Mockito.verify(bdio2StreamUploader, Mockito.times(1)).finish(Mockito.argThat(newUploadUrl), Mockito.anyInt(), Mockito.any());
+    }
+
     private Bdio2RetryAwareStreamUploader getUploaderThatThrowsRetriableOnStart() throws IntegrationException, RetriableBdioUploadException {
         Bdio2RetryAwareStreamUploader bdio2StreamUploader = Mockito.mock(Bdio2RetryAwareStreamUploader.class);
         Mockito.when(bdio2StreamUploader.start(Mockito.any(), Mockito.any())).thenThrow(new RetriableBdioUploadException());
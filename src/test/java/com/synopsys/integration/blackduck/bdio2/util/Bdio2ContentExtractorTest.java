@@ -1,12 +1,16 @@
 package com.synopsys.integration.blackduck.bdio2.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 import com.synopsys.integration.blackduck.bdio2.model.BdioFileContent;
@@ -56,4 +60,26 @@ public class Bdio2ContentExtractorTest {
         List<BdioFileContent> contents = reader.extractContent(bdioFile);
         assertFalse(contents.isEmpty());
     }
+
+    @Test
+    public void testStreamingContentMatchesExtractedContent() throws Exception {
+        File bdioFile = new File(getClass().getResource("/bdio/scans/developerScanTest.bdio").getFile());
+        Bdio2ContentExtractor reader = new Bdio2ContentExtractor();
+        List<BdioFileContent> extracted = reader.extractContent(bdioFile);
+        List<BdioFileContent> streamed = reader.extractStreamingContent(bdioFile);
+
+        assertEquals(extracted.size(), streamed.size());
+        for (int i = 0; i < extracted.size(); i++) {
+            BdioFileContent expected = extracted.get(i);
+            BdioFileContent actual = streamed.get(i);
+            assertEquals(expected.getFileName(), actual.getFileName());
+            // each stream is independent so a retried request can read the entry again
+            for (int attempt = 0; attempt < 2; attempt++) {
+                try (InputStream inputStream = actual.openContentStream()) {
+                    assertEquals(expected.getContent(), IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+                }
+            }
+            assertEquals(expected.getContentLength(), actual.getContentLength());
+        }
+    }
 }
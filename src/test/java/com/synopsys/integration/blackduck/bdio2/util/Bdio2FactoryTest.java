@@ -2,6 +2,8 @@ package com.synopsys.integration.blackduck.bdio2.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -10,9 +12,11 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import com.blackducksoftware.bdio2.BdioObject;
 import com.blackducksoftware.bdio2.model.Component;
 import com.blackducksoftware.bdio2.model.Project;
 import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.graph.ProjectDependencyGraph;
 import com.synopsys.integration.bdio.model.dependency.Dependency;
 import com.synopsys.integration.bdio.model.dependency.ProjectDependency;
 import com.synopsys.integration.bdio.model.externalid.ExternalId;
@@ -56,4 +60,41 @@ class Bdio2FactoryTest {
         assertEquals(1, results.getRight().size());
         assertEquals("http:maven/" + compGroup + "/" + compName + "/" + compVersion, results.getRight().get(0).id());
     }
+
+    @Test
+    void testCreateBdio2NodesWritesSharedComponentsOnce() throws Exception {
+        ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+        ExternalId rootProjectExternalId = externalIdFactory.createMavenExternalId("testRootProjectGroup", "testRootProjectName", "testRootProjectVersion");
+        ExternalId subProjectExternalId = externalIdFactory.createMavenExternalId("testSubProjectGroup", "testSubProjectName", "testSubProjectVersion");
+        ExternalId sharedExternalId = externalIdFactory.createMavenExternalId("testCompGroup", "testSharedName", "testCompVersion");
+        ExternalId directExternalId = externalIdFactory.createMavenExternalId("testCompGroup", "testDirectName", "testCompVersion");
+
+        ProjectDependency subProjectDependency = new ProjectDependency("testSubProjectName", "testSubProjectVersion", subProjectExternalId);
+        Dependency sharedDependency = new Dependency(sharedExternalId);
+        Dependency directDependency = new Dependency(directExternalId);
+
+        ProjectDependencyGraph dependencyGraph = Mockito.mock(ProjectDependencyGraph.class);
+        Mockito.when(dependencyGraph.getProjectDependency()).thenReturn(new ProjectDependency("testRootProjectName", "testRootProjectVersion", rootProjectExternalId));
+        Set<Dependency> directDependencies = new HashSet<>();
+        directDependencies.add(subProjectDependency);
+        directDependencies.add(directDependency);
+        Mockito.when(dependencyGraph.getDirectDependencies()).thenReturn(directDependencies);
+        // the shared component is reachable from both the subproject and the direct component
+        Mockito.when(dependencyGraph.getChildrenForParent(subProjectDependency)).thenReturn(Collections.singleton(sharedDependency));
+        Mockito.when(dependencyGraph.getChildrenForParent(directDependency)).thenReturn(Collections.singleton(sharedDependency));
+
+        List<BdioObject> nodes = new ArrayList<>();
+        new Bdio2Factory().createBdio2Nodes(dependencyGraph, nodes::add);
+
+        assertEquals(4, nodes.size());
+        assertEquals("http:maven/testSubProjectGroup/testSubProjectName/testSubProjectVersion", nodes.get(0).id());
+        Set<String> componentIds = new HashSet<>();
+        componentIds.add(nodes.get(1).id());
+        componentIds.add(nodes.get(2).id());
+        Set<String> expectedComponentIds = new HashSet<>();
+        expectedComponentIds.add("http:maven/testCompGroup/testSharedName/testCompVersion");
+        expectedComponentIds.add("http:maven/testCompGroup/testDirectName/testCompVersion");
+        assertEquals(expectedComponentIds, componentIds);
+        assertEquals("http:maven/testRootProjectGroup/testRootProjectName/testRootProjectVersion", nodes.get(3).id());
+    }
 }
@@ -0,0 +1,142 @@
+package com.synopsys.integration.blackduck.codelocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.ResourceMetadata;
+import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
+import com.synopsys.integration.blackduck.api.generated.view.CodeLocationView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.api.manual.component.VersionBomCodeLocationBomComputedNotificationContent;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationUserView;
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationUserView;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.dataservice.NotificationService;
+import com.synopsys.integration.blackduck.service.dataservice.ProjectService;
+import com.synopsys.integration.blackduck.service.model.NotificationTaskRange;
+import com.synopsys.integration.blackduck.service.model.ProjectVersionWrapper;
+import com.synopsys.integration.blackduck.service.request.NotificationEditor;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.util.NameVersion;
+
+public class CodeLocationWaitJobTest {
+    private static final NameVersion PROJECT_AND_VERSION = new NameVersion("testProject", "testProjectVersion");
+    private static final Set<String> CODE_LOCATION_NAMES = new HashSet<>(Arrays.asList("one", "two"));
+
+    private final long taskStartTime = System.currentTimeMillis();
+    private final NotificationTaskRange notificationTaskRange = new NotificationTaskRange(taskStartTime, new Date(taskStartTime - TimeUnit.MINUTES.toMillis(10)), new Date(taskStartTime + TimeUnit.DAYS.toMillis(3)));
+
+    @Test
+    public void testNotificationsSeenBeforeAreNotCountedAgain() throws IntegrationException {
+        List<NotificationUserView> firstNotifications = Arrays.asList(createTestNotification("one", new Date(taskStartTime)), createTestNotification("two", new Date(taskStartTime)));
+        List<NotificationUserView> allNotifications = Arrays.asList(firstNotifications.get(0), firstNotifications.get(1), createTestNotification("one", new Date(taskStartTime + 1000)));
+        NotificationService notificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(notificationService.getAllUserNotifications(Mockito.any(), Mockito.any()))
+            .thenReturn(firstNotifications)
+            .thenReturn(firstNotifications)
+            .thenReturn(allNotifications);
+
+        // a third notification is expected, which the repeated first two must not stand in for
+        CodeLocationWaitJob codeLocationWaitJob = createJob(notificationService, 3);
+        codeLocationWaitJob.attemptJob();
+        codeLocationWaitJob.attemptJob();
+        assertFalse(codeLocationWaitJob.wasJobCompleted());
+
+        codeLocationWaitJob.attemptJob();
+        assertTrue(codeLocationWaitJob.wasJobCompleted());
+    }
+
+    @Test
+    public void testRetrievalOverlapsTheNewestNotificationSeen() throws IntegrationException {
+        Date newestCreatedAt = new Date(taskStartTime);
+        NotificationService notificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(notificationService.getAllUserNotifications(Mockito.any(), Mockito.any())).thenReturn(Collections.singletonList(createTestNotification("one", newestCreatedAt)));
+
+        CodeLocationWaitJob codeLocationWaitJob = createJob(notificationService, 2);
+        codeLocationWaitJob.attemptJob();
+        codeLocationWaitJob.attemptJob();
+
+        ArgumentCaptor<NotificationEditor> notificationEditors = ArgumentCaptor.forClass(NotificationEditor.class);
+        Mockito.verify(notificationService, Mockito.times(2)).getAllUserNotifications(Mockito.any(), notificationEditors.capture());
+        List<NotificationEditor> editors = notificationEditors.getAllValues();
+        assertEquals(notificationTaskRange.getStartDate(), editors.get(0).getStartDate());
+        assertEquals(new Date(newestCreatedAt.getTime() - CodeLocationWaitJob.NOTIFICATION_OVERLAP_MILLIS), editors.get(1).getStartDate());
+    }
+
+    @Test
+    public void testNotificationVisibleLateIsStillFound() throws IntegrationException {
+        NotificationUserView newer = createTestNotification("one", new Date(taskStartTime));
+        NotificationUserView older = createTestNotification("two", new Date(taskStartTime - 5000));
+        NotificationService notificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(notificationService.getAllUserNotifications(Mockito.any(), Mockito.any()))
+            .thenReturn(Collections.singletonList(newer))
+            .thenReturn(Arrays.asList(older, newer));
+
+        CodeLocationWaitJob codeLocationWaitJob = createJob(notificationService, 2);
+        codeLocationWaitJob.attemptJob();
+        assertFalse(codeLocationWaitJob.wasJobCompleted());
+
+        codeLocationWaitJob.attemptJob();
+        assertTrue(codeLocationWaitJob.wasJobCompleted());
+        assertEquals(CODE_LOCATION_NAMES, codeLocationWaitJob.onCompletion().getCodeLocationNames());
+    }
+
+    private CodeLocationWaitJob createJob(NotificationService notificationService, int expectedNotificationCount) throws IntegrationException {
+        ProjectVersionView projectVersionView = Mockito.mock(ProjectVersionView.class);
+        UrlMultipleResponses<CodeLocationView> codeLocationsLink = Mockito.mock(UrlMultipleResponses.class);
+        Mockito.when(projectVersionView.metaCodelocationsLink()).thenReturn(codeLocationsLink);
+
+        ProjectService projectService = Mockito.mock(ProjectService.class);
+        Mockito.when(projectService.getProjectVersion(PROJECT_AND_VERSION)).thenReturn(Optional.of(new ProjectVersionWrapper(null, projectVersionView)));
+
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getAllResponses(codeLocationsLink)).thenReturn(Arrays.asList(createTestView("one"), createTestView("two")));
+
+        return new CodeLocationWaitJob(new BufferedIntLogger(), projectService, notificationService, new UserView(), notificationTaskRange, PROJECT_AND_VERSION, CODE_LOCATION_NAMES,
+            expectedNotificationCount, blackDuckApiClient);
+    }
+
+    private CodeLocationView createTestView(String name) throws IntegrationException {
+        ResourceMetadata meta = new ResourceMetadata();
+        meta.setHref(hrefFromName(name));
+
+        CodeLocationView codeLocationView = new CodeLocationView();
+        codeLocationView.setName(name);
+        codeLocationView.setMeta(meta);
+
+        return codeLocationView;
+    }
+
+    private NotificationUserView createTestNotification(String name, Date createdAt) throws IntegrationException {
+        VersionBomCodeLocationBomComputedNotificationContent content = new VersionBomCodeLocationBomComputedNotificationContent();
+        content.setCodeLocation(hrefFromName(name).string());
+
+        VersionBomCodeLocationBomComputedNotificationUserView notificationView = new VersionBomCodeLocationBomComputedNotificationUserView();
+        notificationView.setContent(content);
+        notificationView.setCreatedAt(createdAt);
+
+        return notificationView;
+    }
+
+    private HttpUrl hrefFromName(String name) throws IntegrationException {
+        return new HttpUrl("https://www.blackducksoftware.com/" + name);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.synopsys.integration.blackduck.codelocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class ExponentialBackoffWaitIntervalTrackerTest {
+    @Test
+    public void testIntervalDoublesUpToMax() {
+        ExponentialBackoffWaitIntervalTracker waitIntervalTracker = new ExponentialBackoffWaitIntervalTracker(600, 5, 30);
+
+        assertEquals(600, waitIntervalTracker.getMaxTimeoutInSeconds());
+        assertEquals(5, waitIntervalTracker.getNextWaitIntervalInSeconds());
+        assertEquals(10, waitIntervalTracker.getNextWaitIntervalInSeconds());
+        assertEquals(20, waitIntervalTracker.getNextWaitIntervalInSeconds());
+        assertEquals(30, waitIntervalTracker.getNextWaitIntervalInSeconds());
+        assertEquals(30, waitIntervalTracker.getNextWaitIntervalInSeconds());
+    }
+
+    @Test
+    public void testWaitsNeverExceedTimeout() {
+        ExponentialBackoffWaitIntervalTracker waitIntervalTracker = new ExponentialBackoffWaitIntervalTracker(20, 5);
+
+        assertEquals(5, waitIntervalTracker.getNextWaitIntervalInSeconds());
+        assertEquals(10, waitIntervalTracker.getNextWaitIntervalInSeconds());
+        assertEquals(5, waitIntervalTracker.getNextWaitIntervalInSeconds());
+    }
+
+    @Test
+    public void testDefaultMaxNeverBelowInitial() {
+        ExponentialBackoffWaitIntervalTracker waitIntervalTracker = new ExponentialBackoffWaitIntervalTracker(6000, 90);
+
+        assertEquals(90, waitIntervalTracker.getMaxWaitIntervalInSeconds());
+        assertEquals(90, waitIntervalTracker.getNextWaitIntervalInSeconds());
+        assertEquals(90, waitIntervalTracker.getNextWaitIntervalInSeconds());
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.synopsys.integration.blackduck.codelocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.ResourceMetadata;
+import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
+import com.synopsys.integration.blackduck.api.generated.view.CodeLocationView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.api.manual.component.VersionBomCodeLocationBomComputedNotificationContent;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationUserView;
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationUserView;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.dataservice.NotificationService;
+import com.synopsys.integration.blackduck.service.dataservice.ProjectService;
+import com.synopsys.integration.blackduck.service.dataservice.UserService;
+import com.synopsys.integration.blackduck.service.model.NotificationTaskRange;
+import com.synopsys.integration.blackduck.service.model.ProjectVersionWrapper;
+import com.synopsys.integration.blackduck.service.request.NotificationEditor;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.util.NameVersion;
+
+public class SharedCodeLocationWaiterTest {
+    @Test
+    public void testManyWaitsShareOnePoller() throws Exception {
+        NameVersion firstProject = new NameVersion("first", "1.0");
+        NameVersion secondProject = new NameVersion("second", "1.0");
+
+        ProjectService projectService = Mockito.mock(ProjectService.class);
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        mockProjectVersion(projectService, blackDuckApiClient, firstProject, "one");
+        mockProjectVersion(projectService, blackDuckApiClient, secondProject, "two");
+
+        NotificationService notificationService = Mockito.mock(NotificationService.class);
+        List<NotificationUserView> notifications = Arrays.asList(createTestNotification("one"), createTestNotification("two"));
+        Mockito.when(notificationService.getAllUserNotifications(Mockito.any(), Mockito.any())).thenReturn(notifications);
+
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.findCurrentUser()).thenReturn(new UserView());
+
+        try (SharedCodeLocationWaiter sharedCodeLocationWaiter = new SharedCodeLocationWaiter(new BufferedIntLogger(), blackDuckApiClient, projectService, notificationService, userService, 1)) {
+            CompletableFuture<CodeLocationWaitResult> firstWait = sharedCodeLocationWaiter.waitForCodeLocations(createTestRange(), firstProject, Collections.singleton("one"), 1, 30);
+            CompletableFuture<CodeLocationWaitResult> secondWait = sharedCodeLocationWaiter.waitForCodeLocations(createTestRange(), secondProject, Collections.singleton("two"), 1, 30);
+
+            CodeLocationWaitResult firstResult = firstWait.get(10, TimeUnit.SECONDS);
+            CodeLocationWaitResult secondResult = secondWait.get(10, TimeUnit.SECONDS);
+            assertEquals(CodeLocationWaitResult.Status.COMPLETE, firstResult.getStatus());
+            assertEquals(new HashSet<>(Collections.singleton("one")), firstResult.getCodeLocationNames());
+            assertEquals(CodeLocationWaitResult.Status.COMPLETE, secondResult.getStatus());
+            assertEquals(new HashSet<>(Collections.singleton("two")), secondResult.getCodeLocationNames());
+        }
+
+        // both waits were most likely satisfied by the same poll, but never by one poll each
+        Mockito.verify(notificationService, Mockito.atMost(2)).getAllUserNotifications(Mockito.any(), Mockito.any());
+        Mockito.verify(userService, Mockito.times(1)).findCurrentUser();
+    }
+
+    @Test
+    public void testWaitTimesOut() throws Exception {
+        ProjectService projectService = Mockito.mock(ProjectService.class);
+        NotificationService notificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(notificationService.getAllUserNotifications(Mockito.any(), Mockito.any())).thenReturn(Collections.emptyList());
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.findCurrentUser()).thenReturn(new UserView());
+
+        try (SharedCodeLocationWaiter sharedCodeLocationWaiter = new SharedCodeLocationWaiter(new BufferedIntLogger(), null, projectService, notificationService, userService, 1)) {
+            CompletableFuture<CodeLocationWaitResult> wait = sharedCodeLocationWaiter.waitForCodeLocations(createTestRange(), new NameVersion("none", "1.0"), Collections.singleton("one"), 1, 1);
+
+            CodeLocationWaitResult result = wait.get(10, TimeUnit.SECONDS);
+            assertEquals(CodeLocationWaitResult.Status.PARTIAL, result.getStatus());
+            assertTrue(result.getErrorMessage().isPresent());
+        }
+    }
+
+    @Test
+    public void testCodeLocationsRetrievedOncePerPollForWaitsOnTheSameProjectVersion() throws Exception {
+        NameVersion projectAndVersion = new NameVersion("shared", "1.0");
+        ProjectService projectService = Mockito.mock(ProjectService.class);
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        UrlMultipleResponses<CodeLocationView> codeLocationsLink = mockProjectVersion(projectService, blackDuckApiClient, projectAndVersion, "one", "two");
+
+        NotificationService notificationService = Mockito.mock(NotificationService.class);
+        List<NotificationUserView> notifications = Arrays.asList(createTestNotification("one"), createTestNotification("two"));
+        Mockito.when(notificationService.getAllUserNotifications(Mockito.any(), Mockito.any())).thenReturn(notifications);
+
+        // holds the first poll until both waits are added, so that one poll serves them both
+        CountDownLatch bothWaitsAdded = new CountDownLatch(1);
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.findCurrentUser()).thenAnswer(invocation -> {
+            bothWaitsAdded.await(10, TimeUnit.SECONDS);
+            return new UserView();
+        });
+
+        try (SharedCodeLocationWaiter sharedCodeLocationWaiter = new SharedCodeLocationWaiter(new BufferedIntLogger(), blackDuckApiClient, projectService, notificationService, userService, 1)) {
+            CompletableFuture<CodeLocationWaitResult> firstWait = sharedCodeLocationWaiter.waitForCodeLocations(createTestRange(), projectAndVersion, Collections.singleton("one"), 1, 30);
+            CompletableFuture<CodeLocationWaitResult> secondWait = sharedCodeLocationWaiter.waitForCodeLocations(createTestRange(), projectAndVersion, Collections.singleton("two"), 1, 30);
+            bothWaitsAdded.countDown();
+
+            assertEquals(CodeLocationWaitResult.Status.COMPLETE, firstWait.get(10, TimeUnit.SECONDS).getStatus());
+            assertEquals(CodeLocationWaitResult.Status.COMPLETE, secondWait.get(10, TimeUnit.SECONDS).getStatus());
+        }
+
+        Mockito.verify(projectService, Mockito.times(1)).getProjectVersion(projectAndVersion);
+        Mockito.verify(blackDuckApiClient, Mockito.times(1)).getAllResponses(codeLocationsLink);
+    }
+
+    @Test
+    public void testRetrievalOverlapsTheNewestNotificationSeen() throws Exception {
+        ProjectService projectService = Mockito.mock(ProjectService.class);
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        NameVersion projectAndVersion = new NameVersion("overlap", "1.0");
+        mockProjectVersion(projectService, blackDuckApiClient, projectAndVersion, "one");
+
+        NotificationUserView notification = createTestNotification("one");
+        NotificationService notificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(notificationService.getAllUserNotifications(Mockito.any(), Mockito.any())).thenReturn(Collections.singletonList(notification));
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.findCurrentUser()).thenReturn(new UserView());
+
+        long startTime = System.currentTimeMillis();
+        NotificationTaskRange notificationTaskRange = new NotificationTaskRange(startTime, new Date(startTime - TimeUnit.MINUTES.toMillis(10)), new Date(startTime + TimeUnit.DAYS.toMillis(3)));
+        try (SharedCodeLocationWaiter sharedCodeLocationWaiter = new SharedCodeLocationWaiter(new BufferedIntLogger(), blackDuckApiClient, projectService, notificationService, userService, 1)) {
+            // a second notification never arrives, so the wait keeps polling until it times out
+            CompletableFuture<CodeLocationWaitResult> wait = sharedCodeLocationWaiter.waitForCodeLocations(notificationTaskRange, projectAndVersion, Collections.singleton("one"), 2, 2);
+            assertEquals(CodeLocationWaitResult.Status.PARTIAL, wait.get(10, TimeUnit.SECONDS).getStatus());
+        }
+
+        ArgumentCaptor<NotificationEditor> notificationEditors = ArgumentCaptor.forClass(NotificationEditor.class);
+        Mockito.verify(notificationService, Mockito.atLeast(2)).getAllUserNotifications(Mockito.any(), notificationEditors.capture());
+        List<NotificationEditor> editors = notificationEditors.getAllValues();
+        assertEquals(notificationTaskRange.getStartDate(), editors.get(0).getStartDate());
+        assertEquals(new Date(notification.getCreatedAt().getTime() - CodeLocationWaitJob.NOTIFICATION_OVERLAP_MILLIS), editors.get(1).getStartDate());
+    }
+
+    @Test
+    public void testWaitingAfterCloseIsRejected() {
+        SharedCodeLocationWaiter sharedCodeLocationWaiter = new SharedCodeLocationWaiter(new BufferedIntLogger(), null, null, null, null, 1);
+        sharedCodeLocationWaiter.close();
+
+        assertThrows(IllegalStateException.class,
+            () -> sharedCodeLocationWaiter.waitForCodeLocations(createTestRange(), new NameVersion("closed", "1.0"), Collections.singleton("one"), 1, 30));
+    }
+
+    private UrlMultipleResponses<CodeLocationView> mockProjectVersion(ProjectService projectService, BlackDuckApiClient blackDuckApiClient, NameVersion projectAndVersion, String... codeLocationNames)
+        throws IntegrationException {
+        ProjectVersionView projectVersionView = Mockito.mock(ProjectVersionView.class);
+        UrlMultipleResponses<CodeLocationView> codeLocationsLink = Mockito.mock(UrlMultipleResponses.class);
+        Mockito.when(projectVersionView.metaCodelocationsLink()).thenReturn(codeLocationsLink);
+        Mockito.when(projectService.getProjectVersion(projectAndVersion)).thenReturn(Optional.of(new ProjectVersionWrapper(null, projectVersionView)));
+        List<CodeLocationView> codeLocationViews = new ArrayList<>();
+        for (String codeLocationName : codeLocationNames) {
+            codeLocationViews.add(createTestView(codeLocationName));
+        }
+        Mockito.when(blackDuckApiClient.getAllResponses(codeLocationsLink)).thenReturn(codeLocationViews);
+        return codeLocationsLink;
+    }
+
+    private NotificationTaskRange createTestRange() {
+        long startTime = System.currentTimeMillis();
+        Date startDate = new Date(startTime - 1000);
+        Date endDate = new Date(startTime + TimeUnit.DAYS.toMillis(3));
+        return new NotificationTaskRange(startTime, startDate, endDate);
+    }
+
+    private CodeLocationView createTestView(String name) throws IntegrationException {
+        ResourceMetadata meta = new ResourceMetadata();
+        meta.setHref(hrefFromName(name));
+
+        CodeLocationView codeLocationView = new CodeLocationView();
+        codeLocationView.setName(name);
+        codeLocationView.setMeta(meta);
+
+        return codeLocationView;
+    }
+
+    private NotificationUserView createTestNotification(String name) throws IntegrationException {
+        VersionBomCodeLocationBomComputedNotificationContent content = new VersionBomCodeLocationBomComputedNotificationContent();
+        content.setCodeLocation(hrefFromName(name).string());
+
+        VersionBomCodeLocationBomComputedNotificationUserView notificationView = new VersionBomCodeLocationBomComputedNotificationUserView();
+        notificationView.setContent(content);
+        notificationView.setCreatedAt(new Date());
+
+        return notificationView;
+    }
+
+    private HttpUrl hrefFromName(String name) throws IntegrationException {
+        return new HttpUrl("https://www.blackducksoftware.com/" + name);
+    }
+
+}
@@ -22,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.http.client.CookieHeaderParser;
+import com.synopsys.integration.blackduck.http.client.RetryPolicy;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.builder.BuilderProperties;
 import com.synopsys.integration.builder.BuilderPropertyKey;
@@ -150,6 +151,22 @@ public class BlackDuckServerConfigBuilderTest {
         }
     }
 
+    @Test
+    public void testRetriesAreOptIn() {
+        BlackDuckServerConfigBuilder blackDuckServerConfigBuilder = BlackDuckServerConfig.newApiTokenBuilder();
+        blackDuckServerConfigBuilder.setUrl(GOOD_URL);
+        blackDuckServerConfigBuilder.setApiToken(API_TOKEN);
+        IntLogger logger = new PrintStreamIntLogger(System.out, LogLevel.INFO);
+
+        BlackDuckServerConfig blackDuckServerConfig = blackDuckServerConfigBuilder.build();
+        assertEquals(RetryPolicy.NONE, blackDuckServerConfig.getRetryPolicy());
+        assertEquals(RetryPolicy.NONE, blackDuckServerConfig.createBlackDuckHttpClient(logger).getRetryPolicy());
+
+        blackDuckServerConfigBuilder.setRetryPolicy(RetryPolicy.DEFAULT);
+        blackDuckServerConfig = blackDuckServerConfigBuilder.build();
+        assertEquals(RetryPolicy.DEFAULT, blackDuckServerConfig.createBlackDuckHttpClient(logger).getRetryPolicy());
+    }
+
     //HERE
     @Test
     public void testNewBuilderIncludesAllKeys() {
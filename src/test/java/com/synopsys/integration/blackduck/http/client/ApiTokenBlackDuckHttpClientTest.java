@@ -0,0 +1,144 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.manual.view.ProjectView;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.service.request.BlackDuckSingleRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.rest.support.AuthenticationSupport;
+import com.synopsys.integration.util.NameVersion;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class ApiTokenBlackDuckHttpClientTest {
+    private final AtomicInteger authentications = new AtomicInteger();
+    private final AtomicInteger unauthorized = new AtomicInteger();
+    private final AtomicInteger failingAuthentication = new AtomicInteger();
+
+    @Test
+    public void testConcurrentRequestsAuthenticateOnce() throws IOException, IntegrationException, InterruptedException, ExecutionException {
+        MockWebServer server = startServer(600000);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            ApiTokenBlackDuckHttpClient blackDuckHttpClient = createClient(server);
+            List<Future<Integer>> statusCodes = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                statusCodes.add(executorService.submit(() -> executeRequest(blackDuckHttpClient, server)));
+            }
+            for (Future<Integer> statusCode : statusCodes) {
+                assertEquals(200, statusCode.get().intValue());
+            }
+
+            assertEquals(1, authentications.get());
+            assertEquals(0, unauthorized.get());
+        } finally {
+            executorService.shutdownNow();
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void testTokenRefreshedBeforeItExpires() throws IOException, IntegrationException, InterruptedException {
+        MockWebServer server = startServer(400);
+        try {
+            ApiTokenBlackDuckHttpClient blackDuckHttpClient = createClient(server);
+            assertEquals(200, executeRequest(blackDuckHttpClient, server));
+            Thread.sleep(350);
+            // the token was refreshed in the background, without waiting for a request
+            assertEquals(2, authentications.get());
+            assertEquals(200, executeRequest(blackDuckHttpClient, server));
+
+            assertEquals(2, authentications.get());
+            assertEquals(0, unauthorized.get());
+            blackDuckHttpClient.close();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedRefreshIsSurfaced() throws IOException, IntegrationException, InterruptedException {
+        failingAuthentication.set(2);
+        MockWebServer server = startServer(300);
+        try {
+            ApiTokenBlackDuckHttpClient blackDuckHttpClient = createClient(server);
+            assertEquals(200, executeRequest(blackDuckHttpClient, server));
+            Thread.sleep(350);
+            assertEquals(2, authentications.get());
+
+            BlackDuckIntegrationException refreshFailure = assertThrows(BlackDuckIntegrationException.class, () -> executeRequest(blackDuckHttpClient, server));
+            assertTrue(refreshFailure.getMessage().contains("could not be refreshed"));
+
+            assertEquals(200, executeRequest(blackDuckHttpClient, server));
+            assertEquals(3, authentications.get());
+            blackDuckHttpClient.close();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private MockWebServer startServer(long tokenLifetimeMillis) throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().endsWith("api/tokens/authenticate")) {
+                    int authentication = authentications.incrementAndGet();
+                    if (authentication == failingAuthentication.get()) {
+                        return new MockResponse().setResponseCode(500);
+                    }
+                    return new MockResponse()
+                               .setResponseCode(200)
+                               .setBody(String.format("{\"bearerToken\":\"token-%d\",\"expiresInMilliseconds\":%d}", authentication, tokenLifetimeMillis));
+                }
+                String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+                if (null != authorization && authorization.equals("Bearer token-" + authentications.get())) {
+                    return new MockResponse().setResponseCode(200).setBody("{}");
+                }
+                unauthorized.incrementAndGet();
+                return new MockResponse().setResponseCode(401);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private ApiTokenBlackDuckHttpClient createClient(MockWebServer server) throws IntegrationException {
+        HttpUrl blackDuckUrl = new HttpUrl(server.url("/").toString());
+        return new ApiTokenBlackDuckHttpClient(new BufferedIntLogger(), new Gson(), 30, false, ProxyInfo.NO_PROXY_INFO, blackDuckUrl, new NameVersion("test", "1"), new AuthenticationSupport(), "api-token");
+    }
+
+    private int executeRequest(ApiTokenBlackDuckHttpClient blackDuckHttpClient, MockWebServer server) throws IntegrationException, IOException {
+        HttpUrl url = new HttpUrl(server.url("/api/projects/1").toString());
+        BlackDuckSingleRequest<ProjectView> request = new BlackDuckRequestBuilder().commonGet().buildBlackDuckRequest(new UrlSingleResponse<>(url, ProjectView.class));
+        try (Response response = blackDuckHttpClient.execute(request)) {
+            return response.getStatusCode();
+        }
+    }
+
+}
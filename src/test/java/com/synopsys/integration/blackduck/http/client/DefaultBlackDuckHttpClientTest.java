@@ -0,0 +1,138 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.manual.view.ProjectView;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.service.request.BlackDuckSingleRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.rest.support.AuthenticationSupport;
+import com.synopsys.integration.util.NameVersion;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+public class DefaultBlackDuckHttpClientTest {
+    @Test
+    public void testGatewayErrorRetried() throws IOException, IntegrationException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+        server.start();
+
+        try {
+            DefaultBlackDuckHttpClient blackDuckHttpClient = createClient(server);
+            blackDuckHttpClient.setRetryPolicy(new RetryPolicy(3, 1, 5));
+            try (Response response = blackDuckHttpClient.execute(createRequest(server))) {
+                assertEquals(200, response.getStatusCode());
+            }
+            assertEquals(2, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoRetryPolicyReturnsFirstResponse() throws IOException, IntegrationException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.start();
+
+        try {
+            DefaultBlackDuckHttpClient blackDuckHttpClient = createClient(server);
+            blackDuckHttpClient.setRetryPolicy(RetryPolicy.NONE);
+            try (Response response = blackDuckHttpClient.execute(createRequest(server))) {
+                assertEquals(502, response.getStatusCode());
+            }
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void testRequestsAreNotRetriedByDefault() throws IOException, IntegrationException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+        server.start();
+
+        try {
+            DefaultBlackDuckHttpClient blackDuckHttpClient = createClient(server);
+            assertEquals(RetryPolicy.NONE, blackDuckHttpClient.getRetryPolicy());
+            try (Response response = blackDuckHttpClient.execute(createRequest(server))) {
+                assertEquals(502, response.getStatusCode());
+            }
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void testConnectionPoolStatistics() throws IOException, IntegrationException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+        server.start();
+
+        DefaultBlackDuckHttpClient blackDuckHttpClient = createClient(server);
+        try {
+            assertFalse(blackDuckHttpClient.getConnectionPoolStatistics().isPresent());
+            blackDuckHttpClient.setConnectionPoolConfig(new ConnectionPoolConfig(10, 5, 30, ConnectionPoolConfig.NO_TIME_TO_LIVE));
+            try (Response response = blackDuckHttpClient.execute(createRequest(server))) {
+                assertEquals("{}", response.getContentString());
+            }
+
+            Optional<ConnectionPoolStatistics> connectionPoolStatistics = blackDuckHttpClient.getConnectionPoolStatistics();
+            assertTrue(connectionPoolStatistics.isPresent());
+            assertEquals(10, connectionPoolStatistics.get().getMax());
+            assertEquals(0, connectionPoolStatistics.get().getLeased());
+            assertEquals(0, connectionPoolStatistics.get().getPending());
+
+            blackDuckHttpClient.close();
+            assertFalse(blackDuckHttpClient.getConnectionPoolStatistics().isPresent());
+        } finally {
+            blackDuckHttpClient.closeConnectionPool();
+            server.shutdown();
+        }
+    }
+
+    private DefaultBlackDuckHttpClient createClient(MockWebServer server) throws IntegrationException {
+        HttpUrl blackDuckUrl = new HttpUrl(server.url("/").toString());
+        return new DefaultBlackDuckHttpClient(new BufferedIntLogger(), new Gson(), 30, false, ProxyInfo.NO_PROXY_INFO, blackDuckUrl, new NameVersion("test", "1"), new AuthenticationSupport()) {
+            @Override
+            public boolean isAlreadyAuthenticated(HttpUriRequest request) {
+                return true;
+            }
+
+            @Override
+            public Response attemptAuthentication() {
+                return null;
+            }
+
+            @Override
+            protected void completeAuthenticationRequest(HttpUriRequest request, Response response) {
+            }
+        };
+    }
+
+    private BlackDuckSingleRequest<ProjectView> createRequest(MockWebServer server) throws IntegrationException {
+        HttpUrl url = new HttpUrl(server.url("/api/projects/1").toString());
+        return new BlackDuckRequestBuilder().commonGet().buildBlackDuckRequest(new UrlSingleResponse<>(url, ProjectView.class));
+    }
+
+}
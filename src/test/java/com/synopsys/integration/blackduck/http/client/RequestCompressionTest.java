@@ -0,0 +1,54 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.rest.body.BodyContent;
+import com.synopsys.integration.rest.body.BodyContentConverter;
+import com.synopsys.integration.rest.body.StringBodyContent;
+
+public class RequestCompressionTest {
+    @Test
+    public void testNoneLeavesBodyContentAlone() {
+        BodyContent bodyContent = new StringBodyContent("{}", ContentType.APPLICATION_JSON);
+        assertSame(bodyContent, RequestCompression.NONE.apply(bodyContent));
+    }
+
+    @Test
+    public void testGzipCompressesAsItWrites() throws Exception {
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            json.append("{\"@id\":\"http:maven/com.synopsys/component/").append(i).append("\"},");
+        }
+        String expected = json.toString();
+
+        BodyContent bodyContent = RequestCompression.GZIP.apply(new StringBodyContent(expected, ContentType.APPLICATION_JSON));
+        HttpEntity entity = bodyContent.createEntity(BodyContentConverter.DEFAULT);
+
+        assertEquals("gzip", entity.getContentEncoding().getValue());
+        assertTrue(entity.isRepeatable());
+
+        // written twice, as it would be when a request is retried
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            entity.writeTo(compressed);
+            assertTrue(compressed.size() < expected.length() / 5);
+            try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+                assertEquals(expected, IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+
+public class RetryPolicyTest {
+    @Test
+    public void testBackoffDoublesWithJitterUpToMax() {
+        RetryPolicy retryPolicy = new RetryPolicy(10, 100, 1000);
+        for (int i = 0; i < 50; i++) {
+            long first = retryPolicy.getBackoffMillis(1);
+            assertTrue(first >= 50 && first <= 100, "first backoff was " + first);
+
+            long third = retryPolicy.getBackoffMillis(3);
+            assertTrue(third >= 200 && third <= 400, "third backoff was " + third);
+
+            long capped = retryPolicy.getBackoffMillis(9);
+            assertTrue(capped >= 500 && capped <= 1000, "capped backoff was " + capped);
+        }
+    }
+
+    @Test
+    public void testOnlyIdempotentMethodsRetried() {
+        RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+        assertTrue(retryPolicy.canRetry(1, HttpMethod.GET));
+        assertFalse(retryPolicy.canRetry(1, HttpMethod.POST));
+        assertFalse(retryPolicy.canRetry(RetryPolicy.DEFAULT_MAX_ATTEMPTS, HttpMethod.GET));
+        assertFalse(RetryPolicy.NONE.canRetry(1, HttpMethod.GET));
+    }
+
+    @Test
+    public void testOnlyConnectionFailuresRetried() {
+        RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+        assertTrue(retryPolicy.isRetryableException(new IntegrationException("reset", new IOException("Connection reset"))));
+        assertFalse(retryPolicy.isRetryableException(new IntegrationException("bad json")));
+        assertFalse(retryPolicy.isRetryableException(Mockito.mock(IntegrationRestException.class)));
+        assertTrue(retryPolicy.isRetryableStatusCode(502));
+        assertFalse(retryPolicy.isRetryableStatusCode(500));
+    }
+
+    @Test
+    public void testThrottlingLeftToTheThrottle() {
+        RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+        assertFalse(retryPolicy.isRetryableStatusCode(429));
+        assertFalse(retryPolicy.isRetryableStatusCode(503));
+    }
+
+}
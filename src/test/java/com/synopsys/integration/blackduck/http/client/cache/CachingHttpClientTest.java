@@ -0,0 +1,229 @@
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.manual.view.ProjectView;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.blackduck.service.request.BlackDuckSingleRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.response.Response;
+
+public class CachingHttpClientTest {
+    @Test
+    public void testSecondGetIsServedFromCache() throws IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Response response = mockResponse(200, "{\"name\":\"cached\"}", new HashMap<>());
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        assertEquals("{\"name\":\"cached\"}", cachingHttpClient.execute(createRequest("projects/1")).getContentString());
+        assertEquals("{\"name\":\"cached\"}", cachingHttpClient.execute(createRequest("projects/1")).getContentString());
+
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any(BlackDuckRequest.class));
+        CacheStatistics cacheStatistics = cachingHttpClient.getCacheStatistics();
+        assertEquals(1, cacheStatistics.getHits());
+        assertEquals(1, cacheStatistics.getMisses());
+        assertEquals(1, cacheStatistics.getEntryCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvictedWhenOverSize() throws IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Response response = mockResponse(200, "0123456789", new HashMap<>());
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        long entrySize = new CacheEntry(null, 200, "OK", new HashMap<>(), "0123456789".getBytes(StandardCharsets.UTF_8), 0).getSizeInBytes();
+        ResponseCache responseCache = new ResponseCache(entrySize * 2);
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient, responseCache, new CacheTtlPolicy());
+        cachingHttpClient.execute(createRequest("projects/1")).getContentString();
+        cachingHttpClient.execute(createRequest("projects/2")).getContentString();
+        cachingHttpClient.execute(createRequest("projects/3")).getContentString();
+
+        CacheStatistics cacheStatistics = cachingHttpClient.getCacheStatistics();
+        assertEquals(1, cacheStatistics.getEvictions());
+        assertEquals(2, cacheStatistics.getEntryCount());
+        assertTrue(cacheStatistics.getSizeInBytes() <= cacheStatistics.getMaxSizeInBytes());
+    }
+
+    @Test
+    public void testExpiredEntryRevalidatedWithETag() throws IntegrationException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaders.ETAG, "\"version-1\"");
+        Response okResponse = mockResponse(200, "{\"name\":\"revalidated\"}", headers);
+        Response notModifiedResponse = mockResponse(304, "", new HashMap<>());
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenAnswer(invocation -> {
+            BlackDuckRequest<?, ?> blackDuckRequest = invocation.getArgument(0);
+            if (blackDuckRequest.getRequest().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)) {
+                return notModifiedResponse;
+            }
+            return okResponse;
+        });
+
+        CacheTtlPolicy alwaysExpired = new CacheTtlPolicy(Duration.ofHours(1)).addPathTtl("/api/projects", Duration.ZERO);
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient, new ResponseCache(), alwaysExpired);
+        cachingHttpClient.execute(createRequest("projects/1")).getContentString();
+        Response revalidated = cachingHttpClient.execute(createRequest("projects/1"));
+
+        assertEquals(200, revalidated.getStatusCode());
+        assertEquals("{\"name\":\"revalidated\"}", revalidated.getContentString());
+        assertEquals(1, cachingHttpClient.getCacheStatistics().getRevalidations());
+    }
+
+    @Test
+    public void testStreamedContentIsCachedAsBytes() throws Exception {
+        byte[] binaryContent = new byte[] { 0, -1, 2, -3, 4 };
+        Response response = mockResponse(200, "", new HashMap<>());
+        Mockito.when(response.getContent()).thenAnswer(invocation -> new ByteArrayInputStream(binaryContent));
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        try (InputStream inputStream = cachingHttpClient.execute(createRequest("projects/1")).getContent()) {
+            assertArrayEquals(binaryContent, IOUtils.toByteArray(inputStream));
+        }
+        try (InputStream inputStream = cachingHttpClient.execute(createRequest("projects/1")).getContent()) {
+            assertArrayEquals(binaryContent, IOUtils.toByteArray(inputStream));
+        }
+
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any(BlackDuckRequest.class));
+        assertEquals(1, cachingHttpClient.getCacheStatistics().getHits());
+    }
+
+    @Test
+    public void testIdenticalConcurrentGetsAreCoalesced() throws Exception {
+        Response response = mockResponse(200, "{\"name\":\"coalesced\"}", new HashMap<>());
+        CountDownLatch leaderExecuting = new CountDownLatch(1);
+        CountDownLatch followerWaiting = new CountDownLatch(1);
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenAnswer(invocation -> {
+            leaderExecuting.countDown();
+            followerWaiting.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executorService.submit(() -> cachingHttpClient.execute(createRequest("projects/1")).getContentString());
+            leaderExecuting.await(5, TimeUnit.SECONDS);
+            Future<String> follower = executorService.submit(() -> cachingHttpClient.execute(createRequest("projects/1")).getContentString());
+            // give the follower a moment to find the request in flight before the leader is released
+            Thread.sleep(200);
+            followerWaiting.countDown();
+
+            assertEquals("{\"name\":\"coalesced\"}", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("{\"name\":\"coalesced\"}", follower.get(5, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any(BlackDuckRequest.class));
+        assertEquals(1, cachingHttpClient.getCacheStatistics().getCoalesced());
+    }
+
+    @Test
+    public void testResponseTooLargeToCacheIsNotReadUpFront() throws Exception {
+        Response response = mockResponse(200, "0123456789", new HashMap<>());
+        Mockito.when(response.getContentLength()).thenReturn(10L);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient, new ResponseCache(5), new CacheTtlPolicy());
+        Response cachingResponse = cachingHttpClient.execute(createRequest("projects/1"));
+        Mockito.verify(response, Mockito.never()).getContent();
+
+        try (InputStream inputStream = cachingResponse.getContent()) {
+            assertEquals("0123456789", IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+        }
+        assertEquals(0, cachingHttpClient.getCacheStatistics().getEntryCount());
+    }
+
+    @Test
+    public void testChunkedResponseThatFitsIsCachedBeforeItIsRead() throws Exception {
+        Response response = mockResponse(200, "{\"name\":\"chunked\"}", new HashMap<>());
+        Mockito.when(response.getContentLength()).thenReturn(null);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        Response cachingResponse = cachingHttpClient.execute(createRequest("projects/1"));
+
+        // already cached, so an identical request in flight could have shared it
+        assertEquals(1, cachingHttpClient.getCacheStatistics().getEntryCount());
+        assertEquals("{\"name\":\"chunked\"}", cachingResponse.getContentString());
+    }
+
+    @Test
+    public void testChunkedResponseTooLargeToCacheIsStillStreamedInFull() throws Exception {
+        Response response = mockResponse(200, "0123456789", new HashMap<>());
+        Mockito.when(response.getContentLength()).thenReturn(null);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient, new ResponseCache(5), new CacheTtlPolicy());
+        Response cachingResponse = cachingHttpClient.execute(createRequest("projects/1"));
+        assertEquals(0, cachingHttpClient.getCacheStatistics().getEntryCount());
+
+        try (InputStream inputStream = cachingResponse.getContent()) {
+            assertEquals("0123456789", IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+        }
+        Mockito.verify(response, Mockito.times(1)).getContent();
+        assertEquals(0, cachingHttpClient.getCacheStatistics().getEntryCount());
+    }
+
+    @Test
+    public void testResponseClosedWhenReadingItUpFrontFails() throws Exception {
+        Response response = mockResponse(200, "", new HashMap<>());
+        Mockito.when(response.getContent()).thenThrow(new IntegrationException("The connection was reset."));
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        assertThrows(IntegrationException.class, () -> cachingHttpClient.execute(createRequest("projects/1")));
+
+        Mockito.verify(response).close();
+    }
+
+    private Response mockResponse(int statusCode, String content, Map<String, String> headers) throws IntegrationException {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatusCode()).thenReturn(statusCode);
+        Mockito.when(response.isStatusCodeSuccess()).thenReturn(statusCode >= 200 && statusCode < 300);
+        Mockito.when(response.getContentString()).thenReturn(content);
+        Mockito.when(response.getContent()).thenAnswer(invocation -> new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(response.getHeaders()).thenReturn(headers);
+        return response;
+    }
+
+    private BlackDuckSingleRequest<ProjectView> createRequest(String path) throws IntegrationException {
+        HttpUrl url = new HttpUrl("https://blackduckserver.com/api/" + path);
+        return new BlackDuckRequestBuilder().commonGet().buildBlackDuckRequest(new UrlSingleResponse<>(url, ProjectView.class));
+    }
+
+}
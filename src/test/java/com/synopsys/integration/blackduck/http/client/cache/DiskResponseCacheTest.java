@@ -0,0 +1,180 @@
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.http.HttpHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.manual.view.ProjectView;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.blackduck.service.request.BlackDuckSingleRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.response.Response;
+
+public class DiskResponseCacheTest {
+    private File cacheDirectory;
+
+    @BeforeEach
+    public void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("disk_response_cache").toFile();
+    }
+
+    @AfterEach
+    public void deleteCacheDirectory() {
+        FileUtils.deleteQuietly(cacheDirectory);
+    }
+
+    @Test
+    public void testWarmStartServedFromDisk() throws IntegrationException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaders.ETAG, "\"version-1\"");
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Response response = mockResponse("{\"name\":\"persisted\"}", headers);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        CachingHttpClient firstRun = createCachingHttpClient(blackDuckHttpClient);
+        firstRun.execute(createRequest("projects/1")).getContentString();
+
+        CachingHttpClient secondRun = createCachingHttpClient(blackDuckHttpClient);
+        Response cachedResponse = secondRun.execute(createRequest("projects/1"));
+
+        assertEquals("{\"name\":\"persisted\"}", cachedResponse.getContentString());
+        assertEquals("\"version-1\"", cachedResponse.getHeaderValue(HttpHeaders.ETAG));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any(BlackDuckRequest.class));
+        assertEquals(1, secondRun.getCacheStatistics().getDiskReads());
+        assertEquals(1, secondRun.getCacheStatistics().getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTrimmedWhenOverSize() throws IntegrationException {
+        DiskResponseCache diskResponseCache = new DiskResponseCache(new SilentIntLogger(), cacheDirectory, 1);
+        BlackDuckSingleRequest<ProjectView> request = createRequest("projects/1");
+        diskResponseCache.write(request.getRequest(), new CacheEntry(null, 200, "OK", new HashMap<>(), "0123456789".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE));
+
+        assertNull(diskResponseCache.read(request.getRequest()));
+        assertTrue(diskResponseCache.getSizeInBytes() <= diskResponseCache.getMaxSizeInBytes());
+    }
+
+    @Test
+    public void testEntriesKeyedByRequest() throws IntegrationException {
+        DiskResponseCache diskResponseCache = new DiskResponseCache(new SilentIntLogger(), cacheDirectory);
+        diskResponseCache.write(createRequest("projects/1").getRequest(), new CacheEntry(null, 200, "OK", new HashMap<>(), "one".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE));
+        diskResponseCache.write(createRequest("projects/2").getRequest(), new CacheEntry(null, 200, "OK", new HashMap<>(), "two".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE));
+
+        CacheEntry cacheEntry = diskResponseCache.read(createRequest("projects/2").getRequest());
+        assertNotNull(cacheEntry);
+        assertEquals("two", cacheEntry.getBodyString(StandardCharsets.UTF_8));
+        assertNull(diskResponseCache.read(createRequest("projects/3").getRequest()));
+    }
+
+    @Test
+    public void testEntryReadFromDiskHasItsRequest() throws IntegrationException {
+        DiskResponseCache diskResponseCache = new DiskResponseCache(new SilentIntLogger(), cacheDirectory);
+        BlackDuckSingleRequest<ProjectView> request = createRequest("projects/1");
+        diskResponseCache.write(request.getRequest(), new CacheEntry(null, 200, "OK", new HashMap<>(), "one".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE));
+
+        CacheEntry cacheEntry = diskResponseCache.read(request.getRequest());
+        assertNotNull(cacheEntry.getRequest());
+        assertEquals("GET", cacheEntry.getRequest().getMethod());
+        String uri = cacheEntry.getRequest().getURI().toString();
+        assertTrue(uri.startsWith("https://blackduckserver.com/api/projects/1?"));
+        assertTrue(uri.contains("limit="));
+    }
+
+    @Test
+    public void testClearingMemoryKeepsDisk() throws IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Response response = mockResponse("{\"name\":\"persisted\"}", new HashMap<>());
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(response);
+
+        CachingHttpClient cachingHttpClient = createCachingHttpClient(blackDuckHttpClient);
+        cachingHttpClient.execute(createRequest("projects/1")).getContentString();
+        cachingHttpClient.emptyCache();
+        cachingHttpClient.execute(createRequest("projects/1")).getContentString();
+
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any(BlackDuckRequest.class));
+        assertEquals(1, cachingHttpClient.getCacheStatistics().getDiskReads());
+    }
+
+    @Test
+    public void testEntryWithABadBodyLengthIsAMiss() throws IOException, IntegrationException {
+        DiskResponseCache diskResponseCache = new DiskResponseCache(new SilentIntLogger(), cacheDirectory);
+        BlackDuckSingleRequest<ProjectView> request = createRequest("projects/1");
+        diskResponseCache.write(request.getRequest(), new CacheEntry(null, 200, "OK", new HashMap<>(), "one".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE));
+
+        File entryFile = cacheDirectory.listFiles((dir, name) -> name.endsWith(DiskResponseCache.ENTRY_EXTENSION))[0];
+        String cacheKey = entryFile.getName().substring(0, entryFile.getName().length() - DiskResponseCache.ENTRY_EXTENSION.length());
+        try (DataOutputStream outputStream = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(entryFile)))) {
+            outputStream.writeInt(1);
+            outputStream.writeUTF(cacheKey);
+            outputStream.writeInt(200);
+            outputStream.writeBoolean(false);
+            outputStream.writeLong(Long.MAX_VALUE);
+            outputStream.writeInt(0);
+            outputStream.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertNull(diskResponseCache.read(request.getRequest()));
+    }
+
+    @Test
+    public void testStaleTemporaryFilesRemoved() throws IOException, IntegrationException {
+        File staleTemporaryFile = new File(cacheDirectory, "stale.tmp");
+        File currentTemporaryFile = new File(cacheDirectory, "current.tmp");
+        FileUtils.writeStringToFile(staleTemporaryFile, "left by a writer that died", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(currentTemporaryFile, "still being written", StandardCharsets.UTF_8);
+        staleTemporaryFile.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+
+        DiskResponseCache diskResponseCache = new DiskResponseCache(new SilentIntLogger(), cacheDirectory, 1);
+        diskResponseCache.write(createRequest("projects/1").getRequest(), new CacheEntry(null, 200, "OK", new HashMap<>(), "one".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE));
+
+        assertFalse(staleTemporaryFile.exists());
+        assertTrue(currentTemporaryFile.exists());
+    }
+
+    private CachingHttpClient createCachingHttpClient(BlackDuckHttpClient blackDuckHttpClient) {
+        ResponseCache responseCache = new ResponseCache(ResponseCache.DEFAULT_MAX_SIZE_IN_BYTES, new DiskResponseCache(new SilentIntLogger(), cacheDirectory));
+        return new CachingHttpClient(blackDuckHttpClient, responseCache, new CacheTtlPolicy());
+    }
+
+    private Response mockResponse(String content, Map<String, String> headers) throws IntegrationException {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatusCode()).thenReturn(200);
+        Mockito.when(response.isStatusCodeSuccess()).thenReturn(true);
+        Mockito.when(response.getContentString()).thenReturn(content);
+        Mockito.when(response.getContent()).thenAnswer(invocation -> new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(response.getHeaders()).thenReturn(headers);
+        return response;
+    }
+
+    private BlackDuckSingleRequest<ProjectView> createRequest(String path) throws IntegrationException {
+        HttpUrl url = new HttpUrl("https://blackduckserver.com/api/" + path);
+        return new BlackDuckRequestBuilder().commonGet().buildBlackDuckRequest(new UrlSingleResponse<>(url, ProjectView.class));
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.synopsys.integration.blackduck.http.client.throttle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.manual.view.ProjectView;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.blackduck.service.request.BlackDuckSingleRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.response.Response;
+
+public class ThrottlingHttpClientTest {
+    @Test
+    public void testLimitShrinksOnThrottleAndGrowsOnSuccess() throws IntegrationException, IOException {
+        Response ok = mockResponse(200, null);
+        Response throttled = mockResponse(429, "0");
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.getLogger()).thenReturn(new SilentIntLogger());
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(throttled, ok);
+
+        ThrottlingHttpClient throttlingHttpClient = new ThrottlingHttpClient(blackDuckHttpClient, () -> new AdaptiveConcurrencyLimit(8, 1, 64, 0.5));
+        try (Response response = throttlingHttpClient.execute(createRequest("projects/1"))) {
+            assertEquals(429, response.getStatusCode());
+        }
+
+        ThrottleStatistics afterThrottle = throttlingHttpClient.getThrottleStatistics().get("blackduckserver.com");
+        assertEquals(4, afterThrottle.getCurrentLimit());
+        assertEquals(1, afterThrottle.getThrottles());
+        assertEquals(0, afterThrottle.getInFlight());
+
+        for (int i = 0; i < 20; i++) {
+            throttlingHttpClient.execute(createRequest("projects/1")).close();
+        }
+        ThrottleStatistics afterSuccesses = throttlingHttpClient.getThrottleStatistics().get("blackduckserver.com");
+        assertTrue(afterSuccesses.getCurrentLimit() > 4);
+        assertEquals(20, afterSuccesses.getSuccesses());
+    }
+
+    @Test
+    public void testRequestInFlightUntilItsResponseIsRead() throws IntegrationException, IOException {
+        Response ok = mockResponse(200, null);
+        Mockito.when(ok.getContent()).thenReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(BlackDuckRequest.class))).thenReturn(ok);
+
+        ThrottlingHttpClient throttlingHttpClient = new ThrottlingHttpClient(blackDuckHttpClient, () -> new AdaptiveConcurrencyLimit(8, 1, 64, 0.5));
+        Response response = throttlingHttpClient.execute(createRequest("projects/1"));
+        ThrottleStatistics beforeReading = throttlingHttpClient.getThrottleStatistics().get("blackduckserver.com");
+        assertEquals(1, beforeReading.getInFlight());
+        assertEquals(0, beforeReading.getSuccesses());
+
+        InputStream content = response.getContent();
+        IOUtils.toByteArray(content);
+        ThrottleStatistics afterReading = throttlingHttpClient.getThrottleStatistics().get("blackduckserver.com");
+        assertEquals(0, afterReading.getInFlight());
+        assertEquals(1, afterReading.getSuccesses());
+
+        content.close();
+        response.close();
+        assertEquals(1, throttlingHttpClient.getThrottleStatistics().get("blackduckserver.com").getSuccesses(), "a response should only be counted once");
+    }
+
+    @Test
+    public void testRetryAfterPausesRequests() throws InterruptedException {
+        AtomicLong now = new AtomicLong(1000);
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 8, 0.5, now::get);
+        limit.acquire();
+        assertTrue(limit.onThrottled(5000));
+        assertEquals(5000, limit.getThrottleStatistics().getPausedMillis());
+
+        limit.acquire();
+        assertFalse(limit.onThrottled(5000), "a second throttle inside the cooldown should not lower the limit again");
+        assertEquals(2, limit.getCurrentLimit());
+
+        now.addAndGet(5000);
+        assertEquals(0, limit.getThrottleStatistics().getPausedMillis());
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        assertEquals(120000, ThrottlingHttpClient.parseRetryAfterMillis("120", 0));
+        assertEquals(ThrottlingHttpClient.DEFAULT_RETRY_AFTER_MILLIS, ThrottlingHttpClient.parseRetryAfterMillis(null, 0));
+        assertEquals(ThrottlingHttpClient.DEFAULT_RETRY_AFTER_MILLIS, ThrottlingHttpClient.parseRetryAfterMillis("soon", 0));
+        assertEquals(0, ThrottlingHttpClient.parseRetryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT", Long.MAX_VALUE));
+    }
+
+    private Response mockResponse(int statusCode, String retryAfter) {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatusCode()).thenReturn(statusCode);
+        Mockito.when(response.getHeaderValue(HttpHeaders.RETRY_AFTER)).thenReturn(retryAfter);
+        return response;
+    }
+
+    private BlackDuckSingleRequest<ProjectView> createRequest(String path) throws IntegrationException {
+        HttpUrl url = new HttpUrl("https://blackduckserver.com/api/" + path);
+        return new BlackDuckRequestBuilder().commonGet().buildBlackDuckRequest(new UrlSingleResponse<>(url, ProjectView.class));
+    }
+
+}
@@ -3,6 +3,7 @@ package com.synopsys.integration.blackduck.http.transform;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.InputStream;
@@ -70,6 +71,37 @@ public class BlackDuckJsonTransformerTest {
         assertJsonValid(json, projectView);
     }
 
+    @Test
+    public void testPatchCreatedOnlyWhenNeeded() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectViewResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        ProjectViewWithoutDescription projectView = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponseAs(json, ProjectViewWithoutDescription.class);
+        assertNull(projectView.getPatch());
+
+        projectView.setName("a new name");
+        String patchedJson = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.producePatchedJson(projectView);
+        assertNotNull(projectView.getPatch());
+
+        JsonElement patchedJsonElement = BlackDuckJsonTransformerTest.gson.fromJson(patchedJson, JsonElement.class);
+        assertEquals("a new name", patchedJsonElement.getAsJsonObject().get("name").getAsString());
+        assertEquals("a made up description", patchedJsonElement.getAsJsonObject().get("description").getAsString());
+    }
+
+    @Test
+    public void testReadOnlyResponsesAreRecognized() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectViewResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        ProjectView readOnlyView = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponseAs(json, ProjectView.class, true);
+        ProjectView view = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponseAs(json, ProjectView.class);
+
+        assertTrue(BlackDuckJsonTransformerTest.blackDuckJsonTransformer.isReadOnly(readOnlyView));
+        assertNull(readOnlyView.getPatch());
+        assertFalse(BlackDuckJsonTransformerTest.blackDuckJsonTransformer.isReadOnly(view));
+        assertFalse(BlackDuckJsonTransformerTest.blackDuckJsonTransformer.isReadOnly(new ProjectView()));
+    }
+
     @Test
     public void testPageResults() throws Exception {
         InputStream jsonInputStream = getClass().getResourceAsStream("/projectsResponse.json");
@@ -83,6 +115,9 @@ public class BlackDuckJsonTransformerTest {
         JsonArray items = jsonElement.getAsJsonObject().get("items").getAsJsonArray();
         Iterator<JsonElement> itemsIterator = items.iterator();
         for (ProjectView projectView : blackDuckPageResponse.getItems()) {
+            // the json of each item isn't serialized until it is asked for
+            assertNull(projectView.getJson());
+            assertNotNull(BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getJson(projectView));
             assertObjectValid(projectView);
             assertTrue(StringUtils.isNotBlank(projectView.getName()));
 
@@ -91,6 +126,22 @@ public class BlackDuckJsonTransformerTest {
         }
     }
 
+    @Test
+    public void testPatchedJsonFromAPageItem() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectsResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        BlackDuckPageResponse<ProjectViewWithoutDescription> blackDuckPageResponse = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponses(json, ProjectViewWithoutDescription.class);
+        ProjectViewWithoutDescription projectView = blackDuckPageResponse.getItems().get(0);
+        String description = projectView.getJsonElement().getAsJsonObject().get("description").getAsString();
+        projectView.setName("a new name");
+
+        String patchedJson = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.producePatchedJson(projectView);
+        JsonElement patchedJsonElement = BlackDuckJsonTransformerTest.gson.fromJson(patchedJson, JsonElement.class);
+        assertEquals("a new name", patchedJsonElement.getAsJsonObject().get("name").getAsString());
+        assertEquals(description, patchedJsonElement.getAsJsonObject().get("description").getAsString());
+    }
+
     @Test
     public void testArbitraryJsonDifference() throws Exception {
         InputStream jsonInputStream = getClass().getResourceAsStream("/complex.json");
@@ -1,13 +1,21 @@
 package com.synopsys.integration.blackduck.http.transform;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
@@ -21,13 +29,16 @@ import com.synopsys.integration.blackduck.api.manual.view.ProjectView;
 import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.RetryPolicy;
 import com.synopsys.integration.blackduck.http.transform.subclass.BlackDuckResponseResolver;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
+import com.synopsys.integration.blackduck.service.ParallelRetriever;
 import com.synopsys.integration.blackduck.service.request.BlackDuckMultipleRequest;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.LogLevel;
 import com.synopsys.integration.log.PrintStreamIntLogger;
+import com.synopsys.integration.log.SilentIntLogger;
 import com.synopsys.integration.rest.HttpUrl;
 import com.synopsys.integration.rest.response.Response;
 
@@ -115,6 +126,94 @@ public class BlackDuckResponsesTransformerTest {
         assertEquals(69, allPagesResponse.getItems().size());
     }
 
+    @Test
+    public void testGettingAllMultiplePagesConcurrently() throws IntegrationException, IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            MockedClient serialClient = new MockedClient();
+            MockedClient concurrentClient = new MockedClient(executorService, 3);
+
+            List<String> serialHrefs = serialClient.blackDuckResponsesTransformer.getAllResponses(serialClient.blackDuckRequest).getItems()
+                                           .stream()
+                                           .map(projectView -> projectView.getHref().string())
+                                           .collect(Collectors.toList());
+            BlackDuckPageResponse<ProjectView> concurrentResponse = concurrentClient.blackDuckResponsesTransformer.getAllResponses(concurrentClient.blackDuckRequest);
+            List<String> concurrentHrefs = concurrentResponse.getItems()
+                                               .stream()
+                                               .map(projectView -> projectView.getHref().string())
+                                               .collect(Collectors.toList());
+
+            assertEquals(69, concurrentResponse.getTotalCount());
+            assertEquals(serialHrefs, concurrentHrefs);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNestedRetrievalsOnSmallPoolDoNotDeadlock() throws IntegrationException, IOException {
+        // every pool thread is taken by an outer retrieval that pages through its own results on the same pool
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            MockedClient concurrentClient = new MockedClient(executorService, 3);
+            ParallelRetriever parallelRetriever = new ParallelRetriever(executorService, ParallelRetriever.DEFAULT_MAX_PARALLELISM);
+
+            List<Integer> pageCounts = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> parallelRetriever.retrieveAll(
+                Arrays.asList(1, 2, 3, 4, 5, 6),
+                input -> concurrentClient.blackDuckResponsesTransformer.getAllResponses(concurrentClient.blackDuckRequest).getItems().size()
+            ));
+
+            assertEquals(Arrays.asList(69, 69, 69, 69, 69, 69), pageCounts);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSomeResponsesConcurrently() throws IntegrationException, IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            MockedClient concurrentClient = new MockedClient(executorService, 2);
+            BlackDuckPageResponse<ProjectView> someResponses = concurrentClient.blackDuckResponsesTransformer.getSomeResponses(concurrentClient.blackDuckRequest, 45);
+
+            assertEquals(69, someResponses.getTotalCount());
+            assertEquals(45, someResponses.getItems().size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStreamingAllMultiplePages() throws IntegrationException, IOException {
+        MockedClient mockedClient = new MockedClient();
+        List<String> allHrefs = mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest).getItems()
+                                    .stream()
+                                    .map(projectView -> projectView.getHref().string())
+                                    .collect(Collectors.toList());
+
+        MockedClient streamingClient = new MockedClient();
+        List<String> streamedHrefs = streamingClient.blackDuckResponsesTransformer.streamAllResponses(streamingClient.blackDuckRequest)
+                                         .map(projectView -> projectView.getHref().string())
+                                         .collect(Collectors.toList());
+
+        assertEquals(69, streamedHrefs.size());
+        assertEquals(allHrefs, streamedHrefs);
+    }
+
+    @Test
+    public void testIteratorOnlyRetrievesConsumedPages() throws IntegrationException, IOException {
+        MockedClient mockedClient = new MockedClient();
+        BlackDuckPageIterator<ProjectView> pageIterator = mockedClient.blackDuckResponsesTransformer.getResponsesIterator(mockedClient.blackDuckRequest);
+        assertEquals(-1, pageIterator.getTotalCount());
+
+        for (int i = 0; i < 21; i++) {
+            pageIterator.next();
+        }
+
+        assertEquals(69, pageIterator.getTotalCount());
+        Mockito.verify(mockedClient.blackDuckHttpClient, Mockito.times(2)).execute(Mockito.any(BlackDuckRequest.class));
+    }
+
     @Test
     public void testGettingOnePageOnePageTotal() throws IOException, IntegrationException {
         Map<String, String> offsetsToResults = new HashMap<>();
@@ -149,6 +248,40 @@ public class BlackDuckResponsesTransformerTest {
         assertEquals(20, allPagesResponse.getItems().size());
     }
 
+    @Test
+    public void testBrokenPageIsRequestedAgainWithoutRestarting() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+        BlackDuckHttpClient blackDuckHttpClient = mockedClient.blackDuckHttpClient;
+        Mockito.when(blackDuckHttpClient.getRetryPolicy()).thenReturn(new RetryPolicy(3, 0, 0));
+        Mockito.when(blackDuckHttpClient.getLogger()).thenReturn(new SilentIntLogger());
+
+        Response brokenResponse = Mockito.mock(Response.class);
+        Mockito.when(brokenResponse.getContentString())
+            .thenThrow(new IntegrationException("Could not read the response", new IOException("Connection reset")))
+            .thenReturn(getText("projectViews_page_3_of_4.json"));
+        ArgumentMatcher<BlackDuckRequest> thirdPage = createRequestMatcher(new HttpUrl("https://blackduckserver.com/api/projects"), 40, 20);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.argThat(thirdPage))).thenReturn(brokenResponse);
+
+        BlackDuckPageResponse<ProjectView> allPagesResponse = mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest);
+        assertEquals(69, allPagesResponse.getItems().size());
+        Mockito.verify(blackDuckHttpClient, Mockito.times(2)).execute(Mockito.argThat(thirdPage));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(5)).execute(Mockito.any(BlackDuckRequest.class));
+    }
+
+    @Test
+    public void testFailedRequestIsNotRetriedAgainByTheTransformer() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+        BlackDuckHttpClient blackDuckHttpClient = mockedClient.blackDuckHttpClient;
+        Mockito.when(blackDuckHttpClient.getRetryPolicy()).thenReturn(new RetryPolicy(3, 0, 0));
+        Mockito.when(blackDuckHttpClient.getLogger()).thenReturn(new SilentIntLogger());
+
+        ArgumentMatcher<BlackDuckRequest> thirdPage = createRequestMatcher(new HttpUrl("https://blackduckserver.com/api/projects"), 40, 20);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.argThat(thirdPage))).thenThrow(new IntegrationException("Could not connect", new IOException("Connection reset")));
+
+        assertThrows(IntegrationException.class, () -> mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.argThat(thirdPage));
+    }
+
     private void mockClientBehavior(BlackDuckHttpClient blackDuckHttpClient, Map<String, String> offsetsToResults, int limit) throws IOException, IntegrationException {
         Set<String> knownsOffsets = offsetsToResults.keySet();
 
@@ -189,15 +322,20 @@ public class BlackDuckResponsesTransformerTest {
     private class MockedClient {
         private final BlackDuckMultipleRequest<ProjectView> blackDuckRequest;
         private final BlackDuckResponsesTransformer blackDuckResponsesTransformer;
+        private final BlackDuckHttpClient blackDuckHttpClient;
 
         public MockedClient() throws IOException, IntegrationException {
+            this(null, BlackDuckResponsesTransformer.SERIAL_PAGES_IN_FLIGHT);
+        }
+
+        public MockedClient(ExecutorService executorService, int pagesInFlight) throws IOException, IntegrationException {
             Map<String, String> offsetsToResults = new HashMap<>();
             offsetsToResults.put("0", "projectViews_page_1_of_4.json");
             offsetsToResults.put("20", "projectViews_page_2_of_4.json");
             offsetsToResults.put("40", "projectViews_page_3_of_4.json");
             offsetsToResults.put("60", "projectViews_page_4_of_4.json");
 
-            BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+            blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
             mockClientBehavior(blackDuckHttpClient, offsetsToResults, 20);
 
             Gson gson = BlackDuckServicesFactory.createDefaultGson();
@@ -208,7 +346,11 @@ public class BlackDuckResponsesTransformerTest {
                                                                   .addQueryParameter(BlackDuckRequestBuilder.LIMIT_PARAMETER, "20")
                                                                   .addQueryParameter(BlackDuckRequestBuilder.OFFSET_PARAMETER, "0");
             blackDuckRequest = BlackDuckRequest.createMultipleRequest(blackDuckRequestBuilder, new HttpUrl("https://blackduckserver.com/api/projects"), ProjectView.class);
-            blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+            if (null == executorService) {
+                blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+            } else {
+                blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer, executorService, pagesInFlight);
+            }
         }
     }
 
@@ -0,0 +1,144 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class AsyncBlackDuckApiClientTest {
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void createExecutorService() {
+        executorService = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void shutdownExecutorService() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testResponsesCompose() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class))).thenAnswer(invocation -> {
+            HttpUrl url = invocation.getArgument(0);
+            UserView userView = new UserView();
+            userView.setUserName(url.string());
+            return userView;
+        });
+
+        AsyncBlackDuckApiClient asyncBlackDuckApiClient = new AsyncBlackDuckApiClient(blackDuckApiClient, executorService);
+        CompletableFuture<UserView> first = asyncBlackDuckApiClient.getResponse(new HttpUrl("https://synopsys.com/api/users/1"), UserView.class);
+        CompletableFuture<UserView> second = asyncBlackDuckApiClient.getResponse(new HttpUrl("https://synopsys.com/api/users/2"), UserView.class);
+        String userNames = first.thenCombine(second, (a, b) -> a.getUserName() + "," + b.getUserName()).join();
+
+        assertEquals("https://synopsys.com/api/users/1,https://synopsys.com/api/users/2", userNames);
+    }
+
+    @Test
+    public void testFailureCompletesExceptionally() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.doThrow(new IntegrationException("not allowed")).when(blackDuckApiClient).delete(Mockito.any(HttpUrl.class));
+
+        AsyncBlackDuckApiClient asyncBlackDuckApiClient = new AsyncBlackDuckApiClient(blackDuckApiClient, executorService);
+        CompletableFuture<Void> deleted = asyncBlackDuckApiClient.delete(new HttpUrl("https://synopsys.com/api/projects/1"));
+
+        CompletionException thrown = assertThrows(CompletionException.class, deleted::join);
+        assertTrue(thrown.getCause() instanceof IntegrationException);
+        assertEquals("not allowed", thrown.getCause().getMessage());
+    }
+
+    @Test
+    public void testConcurrentRequestsBounded() throws IntegrationException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return new UserView();
+        });
+
+        AsyncBlackDuckApiClient asyncBlackDuckApiClient = new AsyncBlackDuckApiClient(blackDuckApiClient, executorService, 2);
+        List<CompletableFuture<UserView>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(asyncBlackDuckApiClient.getResponse(new HttpUrl("https://synopsys.com/api/users/" + i), UserView.class));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertTrue(maxInFlight.get() <= 2);
+        Mockito.verify(blackDuckApiClient, Mockito.times(20)).getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class));
+    }
+
+    @Test
+    public void testWaitingCallsDoNotHoldExecutorThreads() throws Exception {
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class))).thenAnswer(invocation -> {
+            releaseFirstCall.await(5, TimeUnit.SECONDS);
+            return new UserView();
+        });
+
+        ExecutorService twoThreads = Executors.newFixedThreadPool(2);
+        try {
+            AsyncBlackDuckApiClient asyncBlackDuckApiClient = new AsyncBlackDuckApiClient(blackDuckApiClient, twoThreads, 1);
+            CompletableFuture<UserView> first = asyncBlackDuckApiClient.getResponse(new HttpUrl("https://synopsys.com/api/users/1"), UserView.class);
+            CompletableFuture<UserView> second = asyncBlackDuckApiClient.getResponse(new HttpUrl("https://synopsys.com/api/users/2"), UserView.class);
+
+            // the second call waits for its turn in a queue, so the executor's other thread is still free
+            assertEquals("free", twoThreads.submit(() -> "free").get(1, TimeUnit.SECONDS));
+
+            releaseFirstCall.countDown();
+            CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        } finally {
+            twoThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClientsOnTheSameExecutorShareItsLimit() throws IntegrationException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return new UserView();
+        });
+
+        ConcurrencyLimitedExecutorService sharedLimit = new ConcurrencyLimitedExecutorService(executorService, 2);
+        List<AsyncBlackDuckApiClient> asyncBlackDuckApiClients = Arrays.asList(new AsyncBlackDuckApiClient(blackDuckApiClient, sharedLimit), new AsyncBlackDuckApiClient(blackDuckApiClient, sharedLimit));
+        List<CompletableFuture<UserView>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            AsyncBlackDuckApiClient asyncBlackDuckApiClient = asyncBlackDuckApiClients.get(i % 2);
+            futures.add(asyncBlackDuckApiClient.getResponse(new HttpUrl("https://synopsys.com/api/users/" + i), UserView.class));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertTrue(maxInFlight.get() <= 2);
+        assertEquals(2, asyncBlackDuckApiClients.get(0).getMaxConcurrentRequests());
+    }
+
+}
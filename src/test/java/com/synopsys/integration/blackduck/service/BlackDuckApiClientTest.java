@@ -1,6 +1,8 @@
 package com.synopsys.integration.blackduck.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -20,6 +22,7 @@ import com.synopsys.integration.blackduck.TimingExtension;
 import com.synopsys.integration.blackduck.api.generated.enumeration.ProjectVersionComponentPolicyStatusType;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionPolicyStatusView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckJsonTransformer;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckResponseTransformer;
@@ -87,4 +90,28 @@ public class BlackDuckApiClientTest {
         assertEquals(ProjectVersionComponentPolicyStatusType.IN_VIOLATION, projectVersionPolicyStatusView.getOverallStatus());
     }
 
+    @Test
+    public void testReadOnlyViewCanNotBeUpdated() throws IOException, IntegrationException {
+        IntLogger logger = new BufferedIntLogger();
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Gson gson = BlackDuckServicesFactory.createDefaultGson();
+        ObjectMapper objectMapper = BlackDuckServicesFactory.createDefaultObjectMapper();
+        BlackDuckResponseResolver blackDuckResponseResolver = new BlackDuckResponseResolver(gson);
+        BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, objectMapper, blackDuckResponseResolver, logger, true);
+        BlackDuckResponseTransformer blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+        BlackDuckResponsesTransformer blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+        InputStream inputStream = getClass().getResourceAsStream("/json/ProjectVersionView_complete.json");
+
+        String completeJson = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        ProjectVersionView projectVersionView = blackDuckJsonTransformer.getResponseAs(completeJson, ProjectVersionView.class);
+        assertNull(projectVersionView.getJson());
+        assertNull(projectVersionView.getJsonElement());
+        assertTrue(blackDuckJsonTransformer.isReadOnly(projectVersionView));
+
+        BlackDuckApiClient blackDuckApiClient = new BlackDuckApiClient(blackDuckHttpClient, blackDuckJsonTransformer, blackDuckResponseTransformer, blackDuckResponsesTransformer);
+
+        assertThrows(BlackDuckIntegrationException.class, () -> blackDuckApiClient.put(projectVersionView));
+        Mockito.verifyNoInteractions(blackDuckHttpClient);
+    }
+
 }
@@ -0,0 +1,64 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class BlackDuckViewResolverTest {
+    @Test
+    public void testEachHrefResolvedOnce() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = mockApiClient();
+
+        BlackDuckViewResolver blackDuckViewResolver = BlackDuckViewResolver.serial(blackDuckApiClient);
+        List<UserView> users = blackDuckViewResolver.resolve(Arrays.asList("https://synopsys.com/api/users/1", "https://synopsys.com/api/users/2", "https://synopsys.com/api/users/1"), UserView.class);
+
+        assertEquals(3, users.size());
+        assertEquals("https://synopsys.com/api/users/1", users.get(0).getUserName());
+        assertEquals("https://synopsys.com/api/users/2", users.get(1).getUserName());
+        Mockito.verify(blackDuckApiClient, Mockito.times(2)).getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class));
+    }
+
+    @Test
+    public void testRetainedViewsSharedAcrossCalls() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = mockApiClient();
+
+        BlackDuckViewResolver retaining = new BlackDuckViewResolver(blackDuckApiClient, ParallelRetriever.serial(), true);
+        retaining.resolve(Arrays.asList("https://synopsys.com/api/users/1"), UserView.class);
+        retaining.resolve(Arrays.asList("https://synopsys.com/api/users/1", "https://synopsys.com/api/users/2"), UserView.class);
+        Mockito.verify(blackDuckApiClient, Mockito.times(2)).getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class));
+
+        retaining.clear();
+        retaining.resolve(Arrays.asList("https://synopsys.com/api/users/1"), UserView.class);
+        Mockito.verify(blackDuckApiClient, Mockito.times(3)).getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class));
+    }
+
+    @Test
+    public void testBlankHrefFails() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = mockApiClient();
+
+        BlackDuckViewResolver blackDuckViewResolver = BlackDuckViewResolver.serial(blackDuckApiClient);
+        assertThrows(IntegrationException.class, () -> blackDuckViewResolver.resolve(Arrays.asList("https://synopsys.com/api/users/1", " "), UserView.class));
+        Mockito.verify(blackDuckApiClient, Mockito.never()).getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class));
+    }
+
+    private BlackDuckApiClient mockApiClient() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getResponse(Mockito.any(HttpUrl.class), Mockito.eq(UserView.class))).thenAnswer(invocation -> {
+            HttpUrl url = invocation.getArgument(0);
+            UserView userView = new UserView();
+            userView.setUserName(url.string());
+            return userView;
+        });
+        return blackDuckApiClient;
+    }
+
+}
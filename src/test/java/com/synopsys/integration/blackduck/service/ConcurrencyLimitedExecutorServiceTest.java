@@ -0,0 +1,102 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyLimitedExecutorServiceTest {
+    @Test
+    public void testConcurrencyBounded() throws InterruptedException, ExecutionException {
+        ConcurrencyLimitedExecutorService executorService = ConcurrencyLimitedExecutorService.withVirtualThreads(3);
+        try {
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int input = i;
+                futures.add(executorService.submit(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    Thread.sleep(2);
+                    inFlight.decrementAndGet();
+                    return input;
+                }));
+            }
+
+            for (int i = 0; i < 50; i++) {
+                assertEquals(i, futures.get(i).get().intValue());
+            }
+            assertTrue(maxInFlight.get() <= 3);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testViewsHaveTheirOwnLimitAndLifecycle() throws InterruptedException, ExecutionException {
+        ExecutorService delegate = Executors.newCachedThreadPool();
+        try {
+            ConcurrencyLimitedExecutorService executorService = new ConcurrencyLimitedExecutorService(delegate, 4);
+            ConcurrencyLimitedExecutorService view = executorService.withLimit(1);
+            assertEquals(1, view.getMaxConcurrency());
+
+            view.submit(() -> 1).get();
+            view.shutdown();
+            assertTrue(view.awaitTermination(5, TimeUnit.SECONDS));
+            assertTrue(view.isTerminated());
+            assertThrows(RejectedExecutionException.class, () -> view.submit(() -> 2));
+
+            assertFalse(executorService.isShutdown());
+            assertFalse(delegate.isShutdown());
+            assertEquals(3, executorService.submit(() -> 3).get().intValue());
+        } finally {
+            delegate.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueuedTasksDoNotHoldDelegateThreads() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService delegate = Executors.newFixedThreadPool(2);
+        try {
+            ConcurrencyLimitedExecutorService executorService = new ConcurrencyLimitedExecutorService(delegate, 2);
+            ConcurrencyLimitedExecutorService uploads = executorService.withLimit(1);
+            ConcurrencyLimitedExecutorService scans = executorService.withLimit(1);
+
+            CountDownLatch release = new CountDownLatch(1);
+            List<Future<Integer>> uploadFutures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                int input = i;
+                uploadFutures.add(uploads.submit(() -> {
+                    release.await();
+                    return input;
+                }));
+            }
+
+            // the upload backlog waits in its own queue, so the second delegate thread is free for the scan
+            assertEquals(7, scans.submit(() -> 7).get(5, TimeUnit.SECONDS).intValue());
+            assertEquals(5, uploads.getActiveTaskCount());
+
+            release.countDown();
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, uploadFutures.get(i).get(5, TimeUnit.SECONDS).intValue());
+            }
+        } finally {
+            delegate.shutdownNow();
+        }
+    }
+
+}
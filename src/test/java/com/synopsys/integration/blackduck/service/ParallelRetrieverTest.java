@@ -0,0 +1,125 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+public class ParallelRetrieverTest {
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void createExecutorService() {
+        executorService = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void shutdownExecutorService() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testResultsInInputOrder() throws IntegrationException {
+        ParallelRetriever parallelRetriever = new ParallelRetriever(executorService, 4);
+        List<Integer> inputs = Arrays.asList(5, 1, 4, 2, 3);
+        List<Integer> results = parallelRetriever.retrieveAll(inputs, input -> {
+            sleep(input * 10);
+            return input * 10;
+        });
+
+        assertEquals(Arrays.asList(50, 10, 40, 20, 30), results);
+    }
+
+    @Test
+    public void testNestedRetrievalsOnSmallPool() {
+        ExecutorService smallExecutorService = Executors.newFixedThreadPool(2);
+        try {
+            ParallelRetriever parallelRetriever = new ParallelRetriever(smallExecutorService, 8);
+            List<Integer> results = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> parallelRetriever.retrieveAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), outer -> {
+                List<Integer> inner = parallelRetriever.retrieveAll(Arrays.asList(1, 2, 3), value -> {
+                    sleep(5);
+                    return value * outer;
+                });
+                return inner.stream().mapToInt(Integer::intValue).sum();
+            }));
+
+            assertEquals(Arrays.asList(6, 12, 18, 24, 30, 36, 42, 48), results);
+        } finally {
+            smallExecutorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelismBounded() throws IntegrationException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> inputs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            inputs.add(i);
+        }
+
+        ParallelRetriever parallelRetriever = new ParallelRetriever(executorService, 3);
+        parallelRetriever.retrieveAll(inputs, input -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(5);
+            inFlight.decrementAndGet();
+            return input;
+        });
+
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void testFailureRethrown() {
+        ParallelRetriever parallelRetriever = new ParallelRetriever(executorService, 2);
+        IntegrationException exception = assertThrows(IntegrationException.class, () -> parallelRetriever.retrieveAll(Arrays.asList(1, 2, 3), input -> {
+            if (2 == input) {
+                throw new IntegrationException("could not retrieve 2");
+            }
+            return input;
+        }));
+
+        assertEquals("could not retrieve 2", exception.getMessage());
+    }
+
+    @Test
+    public void testProgressReportedForEachRetrieval() throws IntegrationException {
+        List<String> progress = new ArrayList<>();
+        ParallelRetriever parallelRetriever = new ParallelRetriever(executorService).withMaxParallelism(2);
+        parallelRetriever.retrieveAll(Arrays.asList(1, 2, 3), input -> input, (retrievedCount, totalCount) -> progress.add(retrievedCount + "/" + totalCount));
+
+        assertEquals(2, parallelRetriever.getMaxParallelism());
+        assertEquals(Arrays.asList("1/3", "2/3", "3/3"), progress);
+    }
+
+    @Test
+    public void testSerialRetriever() throws IntegrationException {
+        List<Integer> consumed = new ArrayList<>();
+        ParallelRetriever.serial().retrieveEach(Arrays.asList(1, 2, 3), input -> input + 1, (input, result) -> consumed.add(result));
+
+        assertEquals(Arrays.asList(2, 3, 4), consumed);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.synopsys.integration.blackduck.service.dataservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
+import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
+import com.synopsys.integration.blackduck.api.generated.view.ComponentMatchedFilesView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionComponentVersionView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.ParallelRetriever;
+import com.synopsys.integration.blackduck.service.model.VersionBomComponentModel;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class ProjectBomServiceTest {
+    @Test
+    public void testComponentsWithMatchedFilesRetrievedSerially() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        ProjectVersionView version = mockVersion();
+        List<ProjectVersionComponentVersionView> bomComponents = Arrays.asList(mockComponent(blackDuckApiClient), mockComponent(blackDuckApiClient));
+        Mockito.when(blackDuckApiClient.getAllResponses(version.metaComponentsLink())).thenReturn(bomComponents);
+
+        ExecutorService executorService = Mockito.mock(ExecutorService.class);
+        ProjectBomService projectBomService = createProjectBomService(blackDuckApiClient, new ParallelRetriever(executorService, 4));
+        List<VersionBomComponentModel> models = projectBomService.getComponentsWithMatchedFilesForProjectVersion(version);
+
+        assertEquals(2, models.size());
+        Mockito.verifyNoInteractions(executorService);
+    }
+
+    @Test
+    public void testStreamingPagesInTheBomComponents() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        ProjectVersionView version = mockVersion();
+        List<ProjectVersionComponentVersionView> bomComponents = Arrays.asList(mockComponent(blackDuckApiClient), mockComponent(blackDuckApiClient), mockComponent(blackDuckApiClient));
+        Mockito.when(blackDuckApiClient.getResponsesIterator(version.metaComponentsLink())).thenReturn(bomComponents.iterator());
+
+        ProjectBomService projectBomService = createProjectBomService(blackDuckApiClient, ParallelRetriever.serial());
+        List<Integer> totalCounts = new ArrayList<>();
+        List<VersionBomComponentModel> models = new ArrayList<>();
+        projectBomService.streamComponentsWithMatchedFilesForProjectVersion(version, 2, (retrievedCount, totalCount) -> totalCounts.add(totalCount), models::add);
+
+        assertEquals(3, models.size());
+        assertEquals(Collections.nCopies(3, ParallelRetriever.UNKNOWN_TOTAL_COUNT), totalCounts);
+        Mockito.verify(blackDuckApiClient, Mockito.never()).getAllResponses(version.metaComponentsLink());
+    }
+
+    private ProjectBomService createProjectBomService(BlackDuckApiClient blackDuckApiClient, ParallelRetriever parallelRetriever) throws IntegrationException {
+        ApiDiscovery apiDiscovery = new ApiDiscovery(new HttpUrl("https://synopsys.com"));
+        return new ProjectBomService(blackDuckApiClient, apiDiscovery, new BufferedIntLogger(), Mockito.mock(ComponentService.class), parallelRetriever);
+    }
+
+    private ProjectVersionView mockVersion() {
+        ProjectVersionView version = Mockito.mock(ProjectVersionView.class);
+        UrlMultipleResponses<ProjectVersionComponentVersionView> componentsLink = Mockito.mock(UrlMultipleResponses.class);
+        Mockito.when(version.metaComponentsLink()).thenReturn(componentsLink);
+        return version;
+    }
+
+    private ProjectVersionComponentVersionView mockComponent(BlackDuckApiClient blackDuckApiClient) throws IntegrationException {
+        ProjectVersionComponentVersionView component = Mockito.mock(ProjectVersionComponentVersionView.class);
+        UrlMultipleResponses<ComponentMatchedFilesView> matchedFilesLink = Mockito.mock(UrlMultipleResponses.class);
+        Mockito.when(component.metaMatchedFilesLink()).thenReturn(matchedFilesLink);
+        Mockito.when(blackDuckApiClient.getAllResponses(matchedFilesLink)).thenReturn(Collections.singletonList(new ComponentMatchedFilesView()));
+        return component;
+    }
+
+}